@@ -0,0 +1,85 @@
+package com.thoughtworks.springbootemployee.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AsyncModeBenchmark {
+    @Param({"false", "true"})
+    private boolean async;
+
+    @Param({"4"})
+    private int tomcatThreads;
+
+    @Param({"20000"})
+    private int employeeCount;
+
+    private ConfigurableApplicationContext context;
+    private String companiesUrl;
+    private String employeeUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.startWeb("async" + async,
+                "async.enabled=" + async,
+                "async.executor.core-size=" + tomcatThreads,
+                "async.executor.max-size=" + tomcatThreads,
+                "server.tomcat.threads.max=" + tomcatThreads,
+                "server.tomcat.threads.min-spare=" + tomcatThreads);
+        BenchmarkApplication.seed(context, employeeCount, 200);
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        companiesUrl = "http://localhost:" + port + "/companies?page=1&pageSize=20";
+        employeeUrl = "http://localhost:" + port + "/employees/" + employeeCount / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(12)
+    public int companyPage() throws IOException {
+        return get(companiesUrl);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public int employeeById() throws IOException {
+        return get(employeeUrl);
+    }
+
+    private int get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        int status = connection.getResponseCode();
+        try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            byte[] buffer = new byte[8192];
+            while (body != null && body.read(buffer) != -1) {
+                continue;
+            }
+        }
+        return status;
+    }
+}
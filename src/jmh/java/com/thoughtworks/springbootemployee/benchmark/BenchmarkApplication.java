@@ -0,0 +1,62 @@
+package com.thoughtworks.springbootemployee.benchmark;
+
+import com.thoughtworks.springbootemployee.SpringBootEmployeeApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class BenchmarkApplication {
+    private static final String SEED_COMPANY_NAME = "benchmark";
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        return start(WebApplicationType.NONE, databaseName, properties);
+    }
+
+    static ConfigurableApplicationContext startWeb(String databaseName, String... properties) {
+        return start(WebApplicationType.SERVLET, databaseName, concat(properties, "server.port=0"));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                                        String databaseName, String... properties) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        for (String property : properties) {
+            arguments.add("--" + property);
+        }
+        return new SpringApplicationBuilder(SpringBootEmployeeApplication.class)
+                .web(webApplicationType)
+                .run(arguments.toArray(new String[0]));
+    }
+
+    private static String[] concat(String[] properties, String property) {
+        String[] result = Arrays.copyOf(properties, properties.length + 1);
+        result[properties.length] = property;
+        return result;
+    }
+
+    static int seed(ConfigurableApplicationContext context, int employeeCount, int employeesPerCompany) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        int companyCount = Math.max(1, employeeCount / employeesPerCompany);
+        jdbcTemplate.update("INSERT INTO company(company_name) "
+                + "SELECT '" + SEED_COMPANY_NAME + "' || X FROM SYSTEM_RANGE(1, ?)", companyCount);
+        Integer firstCompanyId = jdbcTemplate.queryForObject(
+                "SELECT MIN(company_id) FROM company WHERE company_name LIKE '" + SEED_COMPANY_NAME + "%'",
+                Integer.class);
+        jdbcTemplate.update("INSERT INTO employee(name, age, gender, salary, company_id) "
+                        + "SELECT 'employee' || X, 20 + MOD(X, 40), CASEWHEN(MOD(X, 2) = 0, 'male', 'female'), "
+                        + "1000 + MOD(X * 7919, 9000), ? + MOD(X, ?) FROM SYSTEM_RANGE(1, ?)",
+                firstCompanyId, companyCount, employeeCount);
+        return firstCompanyId;
+    }
+}
@@ -0,0 +1,109 @@
+package com.thoughtworks.springbootemployee.benchmark;
+
+import com.thoughtworks.springbootemployee.metrics.QueryCountFilter;
+import com.thoughtworks.springbootemployee.metrics.QueryCounter;
+import com.thoughtworks.springbootemployee.metrics.QueryCountingDataSource;
+import com.thoughtworks.springbootemployee.metrics.ServiceTimingInterceptor;
+import com.thoughtworks.springbootemployee.model.Employee;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsProperties;
+import org.springframework.boot.actuate.autoconfigure.metrics.PropertiesMeterFilter;
+import org.springframework.boot.actuate.metrics.AutoTimer;
+import org.springframework.boot.actuate.metrics.web.servlet.DefaultWebMvcTagsProvider;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcMetricsFilter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InstrumentationOverheadBenchmark {
+    private static final String SQL = "select employee0_.id as id1_1_0_ from employee employee0_ where employee0_.id=?";
+
+    @Param({"none", "http", "full"})
+    private String instrumentation;
+
+    private FilterChain filterChain;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws SQLException {
+        PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        MetricsProperties properties = new MetricsProperties();
+        properties.getDistribution().getPercentilesHistogram().put("http.server.requests", true);
+        properties.getDistribution().getPercentilesHistogram().put("service.method", true);
+        properties.getDistribution().getMinimumExpectedValue().put("http.server.requests", "1ms");
+        properties.getDistribution().getMinimumExpectedValue().put("service.method", "100us");
+        properties.getDistribution().getMaximumExpectedValue().put("http.server.requests", "10s");
+        properties.getDistribution().getMaximumExpectedValue().put("service.method", "10s");
+        meterRegistry.config().meterFilter(new PropertiesMeterFilter(properties));
+        QueryCounter queryCounter = new QueryCounter();
+        DataSource dataSource = new QueryCountingDataSource(stub(DataSource.class,
+                stub(Connection.class, stub(PreparedStatement.class, true))), queryCounter);
+        PreparedStatement statement = dataSource.getConnection().prepareStatement(SQL);
+
+        Employee employee = new Employee("nelly", 18, "female", 10);
+        Function<Integer, Employee> lookup = id -> employee;
+        ProxyFactory proxyFactory = new ProxyFactory(lookup);
+        proxyFactory.addInterface(Function.class);
+        boolean full = "full".equals(instrumentation);
+        if (full) {
+            proxyFactory.addAdvice(new ServiceTimingInterceptor(() -> meterRegistry));
+        }
+        Function<Integer, Employee> service = (Function<Integer, Employee>) proxyFactory.getProxy();
+
+        FilterChain handler = (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/employees/{employeeId}");
+            if (full) {
+                try {
+                    statement.execute();
+                } catch (SQLException exception) {
+                    throw new ServletException(exception);
+                }
+            }
+            service.apply(1);
+        };
+        FilterChain queryCountChain = full ? chain(new QueryCountFilter(queryCounter, meterRegistry), handler) : handler;
+        filterChain = "none".equals(instrumentation) ? handler : chain(new WebMvcMetricsFilter(meterRegistry,
+                new DefaultWebMvcTagsProvider(), "http.server.requests", AutoTimer.ENABLED), queryCountChain);
+    }
+
+    @Benchmark
+    public int getEmployeeById() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filterChain.doFilter(request, response);
+        return response.getStatus();
+    }
+
+    private static <T> T stub(Class<T> type, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> result));
+    }
+
+    private static FilterChain chain(Filter filter, FilterChain next) {
+        return (request, response) -> filter.doFilter(request, response, next);
+    }
+}
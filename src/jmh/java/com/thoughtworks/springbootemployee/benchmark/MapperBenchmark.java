@@ -0,0 +1,90 @@
+package com.thoughtworks.springbootemployee.benchmark;
+
+import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.mapper.CompanyMapper;
+import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+    @Param({"10000"})
+    private int size;
+
+    private final EmployeeMapper employeeMapper = new EmployeeMapper();
+    private final CompanyMapper companyMapper = new CompanyMapper(employeeMapper);
+    private List<Employee> employees;
+    private List<Company> companies;
+
+    @Setup
+    public void setUp() {
+        employees = new ArrayList<>(size);
+        companies = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            Employee employee = new Employee("employee" + index, 20 + index % 40,
+                    index % 2 == 0 ? "male" : "female", 1000 + index);
+            employee.setId(index);
+            employees.add(employee);
+            Company company = new Company("company" + index, null);
+            company.setCompanyId(index);
+            companies.add(company);
+        }
+    }
+
+    @Benchmark
+    public List<EmployeeResponse> employeeToResponseWithFieldCopy() {
+        List<EmployeeResponse> responses = new ArrayList<>(size);
+        for (Employee employee : employees) {
+            responses.add(employeeMapper.toResponse(employee));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<EmployeeResponse> employeeToResponseWithBeanUtils() {
+        List<EmployeeResponse> responses = new ArrayList<>(size);
+        for (Employee employee : employees) {
+            EmployeeResponse response = new EmployeeResponse();
+            BeanUtils.copyProperties(employee, response);
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<CompanyResponse> companyToResponseWithFieldCopy() {
+        List<CompanyResponse> responses = new ArrayList<>(size);
+        for (Company company : companies) {
+            responses.add(companyMapper.toResponse(company, true));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<CompanyResponse> companyToResponseWithBeanUtils() {
+        List<CompanyResponse> responses = new ArrayList<>(size);
+        for (Company company : companies) {
+            CompanyResponse response = new CompanyResponse();
+            BeanUtils.copyProperties(company, response);
+            response.setId(company.getCompanyId());
+            responses.add(response);
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,72 @@
+package com.thoughtworks.springbootemployee.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.test.autoconfigure.web.servlet.SpringBootMockMvcBuilderCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MetricsOverheadBenchmark {
+    private static final String[] UNINSTRUMENTED = {
+            "metrics.instrumentation.enabled=false",
+            "spring.autoconfigure.exclude="
+                    + "org.springframework.boot.actuate.autoconfigure.metrics.web.servlet.WebMvcMetricsAutoConfiguration"
+    };
+
+    @Param({"true", "false"})
+    private boolean instrumented;
+
+    @Param({"10000"})
+    private int employeeCount;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private int employeeId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String databaseName = "metrics" + instrumented;
+        context = instrumented
+                ? BenchmarkApplication.startWeb(databaseName)
+                : BenchmarkApplication.startWeb(databaseName, UNINSTRUMENTED);
+        BenchmarkApplication.seed(context, employeeCount, employeeCount);
+        DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context);
+        new SpringBootMockMvcBuilderCustomizer((WebApplicationContext) context).customize(builder);
+        mockMvc = builder.build();
+        employeeId = employeeCount / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getEmployeeById() throws Exception {
+        return mockMvc.perform(get("/employees/{employeeId}", employeeId)).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int getEmployeePage() throws Exception {
+        return mockMvc.perform(get("/employees/slice").param("page", "50").param("pageSize", "100"))
+                .andReturn().getResponse().getStatus();
+    }
+}
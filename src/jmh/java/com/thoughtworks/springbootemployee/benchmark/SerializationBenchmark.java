@@ -0,0 +1,94 @@
+package com.thoughtworks.springbootemployee.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.mapper.CompanyMapper;
+import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializationBenchmark {
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"100"})
+    private int companies;
+
+    @Param({"50"})
+    private int employeesPerCompany;
+
+    private ObjectWriter writer;
+    private List<CompanyResponse> payload;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        JsonFactory factory = "cbor".equals(format) ? new CBORFactory()
+                : "smile".equals(format) ? new SmileFactory() : new JsonFactory();
+        writer = Jackson2ObjectMapperBuilder.json().factory(factory).build().writer();
+        CompanyMapper companyMapper = new CompanyMapper(new EmployeeMapper());
+        payload = new ArrayList<>(companies);
+        int employeeId = 0;
+        for (int companyIndex = 0; companyIndex < companies; companyIndex++) {
+            List<Employee> employees = new ArrayList<>(employeesPerCompany);
+            for (int index = 0; index < employeesPerCompany; index++) {
+                Employee employee = new Employee("employee" + employeeId, 20 + employeeId % 40,
+                        employeeId % 2 == 0 ? "male" : "female", 1000 + employeeId);
+                employee.setId(employeeId++);
+                employees.add(employee);
+            }
+            Company company = new Company("company" + companyIndex, employees);
+            company.setCompanyId(companyIndex);
+            payload.add(companyMapper.toResponse(company, true));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeCompanies(Bytes counters) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        try (OutputStream output = gzip ? new GZIPOutputStream(buffer) : buffer) {
+            writer.writeValue(output, payload);
+        }
+        byte[] bytes = buffer.toByteArray();
+        counters.bytes += bytes.length;
+        return bytes;
+    }
+}
@@ -0,0 +1,92 @@
+package com.thoughtworks.springbootemployee.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.mapper.CompanyMapper;
+import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.services.CompanyService;
+import com.thoughtworks.springbootemployee.services.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int employeeCount;
+
+    @Param({"1000"})
+    private int employeesPerCompany;
+
+    @Param({"100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private CompanyService companyService;
+    private EmployeeMapper employeeMapper;
+    private TransactionTemplate transactionTemplate;
+    private ObjectMapper objectMapper;
+    private int companyId;
+    private int middlePage;
+    private CompanyResponse companyResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("service" + employeeCount);
+        companyId = BenchmarkApplication.seed(context, employeeCount, employeesPerCompany);
+        employeeService = context.getBean(EmployeeService.class);
+        companyService = context.getBean(CompanyService.class);
+        employeeMapper = context.getBean(EmployeeMapper.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        middlePage = Math.max(1, employeeCount / pageSize / 2);
+        companyResponse = context.getBean(CompanyMapper.class).toResponse(companyService.searchById(companyId), true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<EmployeeResponse> employeePageFromEntities() {
+        return employeeService.getEmployeeByPageAndPageSize(middlePage, pageSize).stream()
+                .map(employeeMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<EmployeeResponse> employeePageFromProjection() {
+        return employeeService.getEmployeeResponsesByPageAndPageSize(middlePage, pageSize);
+    }
+
+    @Benchmark
+    public List<EmployeeResponse> employeesByCompanyId() {
+        return transactionTemplate.execute(status -> companyService.getEmployeesByCompanyId(companyId).stream()
+                .map(employeeMapper::toResponse)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public byte[] companyResponseToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(companyResponse);
+    }
+}
@@ -1,16 +1,59 @@
 package com.thoughtworks.springbootemployee.advice;
 
+import com.thoughtworks.springbootemployee.exception.BadRequestException;
 import com.thoughtworks.springbootemployee.exception.NotFoundException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestControllerAdvice
 public class GlobalControllerAdvice {
+    private static final String RESOURCE_WAS_MODIFIED_CONCURRENTLY = "Resource was modified concurrently!";
+    private static final String SERVER_IS_BUSY = "Server is busy, please retry later!";
+
+    private final Duration retryAfter;
+
+    public GlobalControllerAdvice(@Value("${async.retry-after:1s}") Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFoundException(NotFoundException exception) {
         return new ErrorResponse(exception.getMessage(), HttpStatus.NOT_FOUND.name());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleBadRequestException(BadRequestException exception) {
+        return new ErrorResponse(exception.getMessage(), HttpStatus.BAD_REQUEST.name());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorResponse handlePreconditionFailedException(PreconditionFailedException exception) {
+        return new ErrorResponse(exception.getMessage(), HttpStatus.PRECONDITION_FAILED.name());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorResponse handleOptimisticLockingFailureException(OptimisticLockingFailureException exception) {
+        return new ErrorResponse(RESOURCE_WAS_MODIFIED_CONCURRENTLY, HttpStatus.PRECONDITION_FAILED.name());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleRejectedExecutionException(RejectedExecutionException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)))
+                .body(new ErrorResponse(SERVER_IS_BUSY, HttpStatus.SERVICE_UNAVAILABLE.name()));
+    }
 }
@@ -0,0 +1,10 @@
+package com.thoughtworks.springbootemployee.cache;
+
+public final class CacheRegions {
+    public static final String COMPANIES = "companies";
+    public static final String EMPLOYEES = "employees";
+    public static final String COMPANY_EMPLOYEES = "company-employees";
+
+    private CacheRegions() {
+    }
+}
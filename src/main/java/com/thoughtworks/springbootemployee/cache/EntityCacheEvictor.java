@@ -0,0 +1,37 @@
+package com.thoughtworks.springbootemployee.cache;
+
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+
+@Component
+public class EntityCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public EntityCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evictEmployees(Collection<Integer> ids) {
+        Cache cache = cache();
+        ids.forEach(id -> cache.evictEntityData(Employee.class, id));
+        cache.evictQueryRegions();
+    }
+
+    public void evictCompanyEmployees() {
+        cache().evictCollectionData(Company.class.getName() + ".employees");
+    }
+
+    public void evictEmployeeQueries() {
+        cache().evictQueryRegions();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,86 @@
+package com.thoughtworks.springbootemployee.changes;
+
+import com.thoughtworks.springbootemployee.model.ChangeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class ChangeRingBuffer {
+    private final ChangeEvent[] events;
+    private int head;
+    private int size;
+    private long coveredAfter = Long.MAX_VALUE;
+
+    public ChangeRingBuffer(int capacity) {
+        this.events = new ChangeEvent[capacity];
+    }
+
+    public synchronized void coverAfter(long seq) {
+        coveredAfter = seq;
+    }
+
+    public synchronized void append(List<ChangeEvent> newEvents) {
+        newEvents.forEach(this::append);
+    }
+
+    public synchronized Optional<List<ChangeEvent>> after(long seq, int limit) {
+        if (seq < coveredAfter) {
+            return Optional.empty();
+        }
+        int index = firstAfter(seq);
+        List<ChangeEvent> result = new ArrayList<>(Math.min(limit, size - index));
+        while (index < size && result.size() < limit) {
+            result.add(at(index++));
+        }
+        return Optional.of(result);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void append(ChangeEvent event) {
+        if (event.getSeq() <= coveredAfter) {
+            return;
+        }
+        if (size == events.length) {
+            coveredAfter = at(0).getSeq();
+            events[head] = null;
+            head = (head + 1) % events.length;
+            size--;
+            if (event.getSeq() <= coveredAfter) {
+                return;
+            }
+        }
+        int index = size;
+        while (index > 0 && at(index - 1).getSeq() > event.getSeq()) {
+            set(index, at(index - 1));
+            index--;
+        }
+        set(index, event);
+        size++;
+    }
+
+    private int firstAfter(long seq) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (at(middle).getSeq() <= seq) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private ChangeEvent at(int index) {
+        return events[(head + index) % events.length];
+    }
+
+    private void set(int index, ChangeEvent event) {
+        events[(head + index) % events.length] = event;
+    }
+}
@@ -0,0 +1,50 @@
+package com.thoughtworks.springbootemployee.config;
+
+import com.thoughtworks.springbootemployee.controller.AsyncResponseExecutor;
+import com.thoughtworks.springbootemployee.controller.CompletedFutureReturnValueHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class AsyncConfiguration {
+    @Bean
+    public AsyncResponseExecutor asyncResponseExecutor(@Value("${async.enabled:false}") boolean enabled,
+                                                       @Value("${async.executor.core-size:8}") int coreSize,
+                                                       @Value("${async.executor.max-size:8}") int maxSize,
+                                                       @Value("${async.executor.queue-capacity:100}") int queueCapacity,
+                                                       ObjectProvider<TaskDecorator> taskDecorator,
+                                                       PlatformTransactionManager transactionManager) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("response-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        taskDecorator.ifAvailable(executor::setTaskDecorator);
+        executor.initialize();
+        return new AsyncResponseExecutor(enabled, executor, transactionManager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "async.enabled", havingValue = "false", matchIfMissing = true)
+    public SmartInitializingSingleton completedFutureReturnValueHandler(RequestMappingHandlerAdapter handlerAdapter) {
+        return () -> {
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>();
+            handlers.add(new CompletedFutureReturnValueHandler(handlerAdapter.getReturnValueHandlers()));
+            handlers.addAll(handlerAdapter.getReturnValueHandlers());
+            handlerAdapter.setReturnValueHandlers(handlers);
+        };
+    }
+}
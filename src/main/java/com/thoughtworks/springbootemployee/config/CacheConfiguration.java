@@ -0,0 +1,27 @@
+package com.thoughtworks.springbootemployee.config;
+
+import com.thoughtworks.springbootemployee.cache.LookupCache;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfiguration {
+    @Bean
+    public LookupCache<Integer, Employee> employeeCache(
+            @Value("${cache.employees.maximum-size:10000}") int maximumSize,
+            @Value("${cache.employees.time-to-live:5m}") Duration timeToLive) {
+        return new LookupCache<>("employees", maximumSize, timeToLive);
+    }
+
+    @Bean
+    public LookupCache<Integer, Company> companyCache(
+            @Value("${cache.companies.maximum-size:1000}") int maximumSize,
+            @Value("${cache.companies.time-to-live:5m}") Duration timeToLive) {
+        return new LookupCache<>("companies", maximumSize, timeToLive);
+    }
+}
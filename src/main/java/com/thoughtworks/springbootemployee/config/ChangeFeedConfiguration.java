@@ -0,0 +1,14 @@
+package com.thoughtworks.springbootemployee.config;
+
+import com.thoughtworks.springbootemployee.changes.ChangeRingBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ChangeFeedConfiguration {
+    @Bean
+    public ChangeRingBuffer changeRingBuffer(@Value("${changes.buffer-size:10000}") int bufferSize) {
+        return new ChangeRingBuffer(bufferSize);
+    }
+}
@@ -0,0 +1,57 @@
+package com.thoughtworks.springbootemployee.config;
+
+import com.thoughtworks.springbootemployee.metrics.QueryCountFilter;
+import com.thoughtworks.springbootemployee.metrics.QueryCountTaskDecorator;
+import com.thoughtworks.springbootemployee.metrics.QueryCounter;
+import com.thoughtworks.springbootemployee.metrics.QueryCountingDataSource;
+import com.thoughtworks.springbootemployee.metrics.ServiceTimingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "metrics.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfiguration {
+    @Bean
+    public QueryCounter queryCounter() {
+        return new QueryCounter();
+    }
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor(ObjectProvider<QueryCounter> queryCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof QueryCountingDataSource)) {
+                    return new QueryCountingDataSource((DataSource) bean, queryCounter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter(QueryCounter queryCounter, MeterRegistry meterRegistry) {
+        return new QueryCountFilter(queryCounter, meterRegistry);
+    }
+
+    @Bean
+    public QueryCountTaskDecorator queryCountTaskDecorator(QueryCounter queryCounter) {
+        return new QueryCountTaskDecorator(queryCounter);
+    }
+
+    @Bean
+    public Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+        advisor.setExpression(ServiceTimingInterceptor.POINTCUT);
+        advisor.setAdvice(new ServiceTimingInterceptor(meterRegistry::getObject));
+        return advisor;
+    }
+}
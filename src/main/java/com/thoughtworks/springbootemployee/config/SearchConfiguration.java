@@ -0,0 +1,17 @@
+package com.thoughtworks.springbootemployee.config;
+
+import com.thoughtworks.springbootemployee.search.EmployeeSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class SearchConfiguration {
+    @Bean
+    public EmployeeSearchIndex employeeSearchIndex(
+            @Value("${employee.search.time-budget:50ms}") Duration timeBudget) {
+        return new EmployeeSearchIndex(timeBudget.toNanos());
+    }
+}
@@ -0,0 +1,59 @@
+package com.thoughtworks.springbootemployee.config;
+
+import com.thoughtworks.springbootemployee.cache.CacheRegions;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+public class SecondLevelCacheConfiguration {
+    private static final long TIMESTAMPS_MAXIMUM_SIZE = 100;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${cache.second-level.companies.maximum-size:1000}") long companiesMaximumSize,
+            @Value("${cache.second-level.companies.time-to-live:10m}") Duration companiesTimeToLive,
+            @Value("${cache.second-level.employees.maximum-size:10000}") long employeesMaximumSize,
+            @Value("${cache.second-level.employees.time-to-live:10m}") Duration employeesTimeToLive,
+            @Value("${cache.second-level.company-employees.maximum-size:1000}") long companyEmployeesMaximumSize,
+            @Value("${cache.second-level.company-employees.time-to-live:10m}") Duration companyEmployeesTimeToLive,
+            @Value("${cache.second-level.queries.maximum-size:100}") long queriesMaximumSize,
+            @Value("${cache.second-level.queries.time-to-live:1m}") Duration queriesTimeToLive) {
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(CacheRegions.COMPANIES, region(companiesMaximumSize, companiesTimeToLive))
+                .withCache(CacheRegions.EMPLOYEES, region(employeesMaximumSize, employeesTimeToLive))
+                .withCache(CacheRegions.COMPANY_EMPLOYEES, region(companyEmployeesMaximumSize, companyEmployeesTimeToLive))
+                .withCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                        region(queriesMaximumSize, queriesTimeToLive))
+                .withCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                        CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(TIMESTAMPS_MAXIMUM_SIZE))
+                                .withExpiry(ExpiryPolicyBuilder.noExpiration()));
+        return new EhcacheCachingProvider().getCacheManager(
+                URI.create("urn:second-level-cache:" + UUID.randomUUID()), configuration.build());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private CacheConfigurationBuilder<Object, Object> region(long maximumSize, Duration timeToLive) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(maximumSize))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive));
+    }
+}
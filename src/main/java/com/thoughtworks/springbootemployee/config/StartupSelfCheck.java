@@ -0,0 +1,74 @@
+package com.thoughtworks.springbootemployee.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class StartupSelfCheck {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupSelfCheck.class);
+    private static final String HIBERNATE = "spring.jpa.properties.hibernate.";
+    private static final List<String> HIBERNATE_SETTINGS = Arrays.asList(
+            "jdbc.batch_size", "jdbc.fetch_size", "order_inserts", "order_updates",
+            "connection.provider_disables_autocommit", "query.in_clause_parameter_padding",
+            "query.plan_cache_max_size");
+    private static final List<String> H2_SETTINGS = Arrays.asList(
+            "CACHE_SIZE", "QUERY_CACHE_SIZE", "WRITE_DELAY", "MV_STORE", "MAX_COMPACT_TIME");
+
+    private final Environment environment;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public StartupSelfCheck(Environment environment, DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.environment = environment;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logSettings() {
+        Map<String, Object> settings = collectSettings();
+        LOGGER.info("Performance settings for profiles {}: {}",
+                Arrays.toString(environment.getActiveProfiles()), settings);
+        if (Boolean.TRUE.equals(settings.get("spring.jpa.show-sql"))) {
+            LOGGER.warn("spring.jpa.show-sql is enabled, every SQL statement is written to stdout");
+        }
+        if (settings.get(HIBERNATE + "jdbc.batch_size") == null) {
+            LOGGER.warn("hibernate.jdbc.batch_size is not set, JDBC batching is disabled");
+        }
+    }
+
+    public Map<String, Object> collectSettings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("spring.jpa.show-sql", environment.getProperty("spring.jpa.show-sql", Boolean.class, false));
+        settings.put("spring.jpa.open-in-view", environment.getProperty("spring.jpa.open-in-view", Boolean.class, true));
+        HIBERNATE_SETTINGS.forEach(name -> settings.put(HIBERNATE + name, environment.getProperty(HIBERNATE + name)));
+        HikariDataSource hikariDataSource = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        if (hikariDataSource != null) {
+            settings.put("hikari.maximum-pool-size", hikariDataSource.getMaximumPoolSize());
+            settings.put("hikari.minimum-idle", hikariDataSource.getMinimumIdle());
+            settings.put("hikari.connection-timeout", hikariDataSource.getConnectionTimeout());
+            settings.put("hikari.auto-commit", hikariDataSource.isAutoCommit());
+        }
+        jdbcTemplate.query("SELECT NAME, VALUE FROM INFORMATION_SCHEMA.SETTINGS", resultSet -> {
+            String name = resultSet.getString("NAME");
+            if (H2_SETTINGS.contains(name)) {
+                settings.put("h2." + name, resultSet.getString("VALUE"));
+            }
+        });
+        settings.put("async.enabled", environment.getProperty("async.enabled", Boolean.class, false));
+        return settings;
+    }
+}
@@ -0,0 +1,35 @@
+package com.thoughtworks.springbootemployee.controller;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class AsyncResponseExecutor implements DisposableBean {
+    private final boolean enabled;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+
+    public AsyncResponseExecutor(boolean enabled, ThreadPoolTaskExecutor executor,
+                                 PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public <T> CompletableFuture<T> respond(Supplier<T> response) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(response.get());
+        }
+        return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> response.get()), executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
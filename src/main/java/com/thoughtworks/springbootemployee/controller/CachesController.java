@@ -0,0 +1,26 @@
+package com.thoughtworks.springbootemployee.controller;
+
+import com.thoughtworks.springbootemployee.cache.CacheStatistics;
+import com.thoughtworks.springbootemployee.cache.LookupCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/caches")
+public class CachesController {
+
+    private final List<LookupCache<?, ?>> caches;
+
+    public CachesController(List<LookupCache<?, ?>> caches) {
+        this.caches = caches;
+    }
+
+    @GetMapping
+    public List<CacheStatistics> getStatistics() {
+        return caches.stream().map(LookupCache::getStatistics).collect(Collectors.toList());
+    }
+}
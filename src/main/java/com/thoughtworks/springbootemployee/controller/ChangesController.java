@@ -0,0 +1,61 @@
+package com.thoughtworks.springbootemployee.controller;
+
+import com.thoughtworks.springbootemployee.mapper.ChangeEventMapper;
+import com.thoughtworks.springbootemployee.model.ChangeEvent;
+import com.thoughtworks.springbootemployee.services.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/changes")
+public class ChangesController {
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ChangeFeedService changeFeedService;
+    private final ChangeEventMapper changeEventMapper;
+    private final Duration streamTimeout;
+
+    public ChangesController(ChangeFeedService changeFeedService, ChangeEventMapper changeEventMapper,
+                             @Value("${changes.stream-timeout:5m}") Duration streamTimeout) {
+        this.changeFeedService = changeFeedService;
+        this.changeEventMapper = changeEventMapper;
+        this.streamTimeout = streamTimeout;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(value = "since", required = false) Long since,
+                             @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        long start = lastEventId != null ? lastEventId : since != null ? since : changeFeedService.getCurrentSeq();
+        ChangeFeedService.Subscription subscription = changeFeedService.subscribe(start,
+                events -> send(emitter, events));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(throwable -> subscription.cancel());
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, List<ChangeEvent> events) {
+        try {
+            for (ChangeEvent event : events) {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getSeq()))
+                        .name(changeEventMapper.toName(event.getOperation()))
+                        .data(changeEventMapper.toResponse(event), MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -1,75 +1,170 @@
 package com.thoughtworks.springbootemployee.controller;
 
+import com.thoughtworks.springbootemployee.dto.BulkDeleteResponse;
 import com.thoughtworks.springbootemployee.dto.CompanyRequest;
 import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.CompanyUpdateResponse;
 import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.dto.IdsRequest;
+import com.thoughtworks.springbootemployee.dto.SliceResponse;
 import com.thoughtworks.springbootemployee.mapper.CompanyMapper;
+import com.thoughtworks.springbootemployee.mapper.CursorMapper;
+import com.thoughtworks.springbootemployee.exception.BadRequestException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
 import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.mapper.EtagMapper;
 import com.thoughtworks.springbootemployee.model.Company;
 import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.CompanySummary;
+import com.thoughtworks.springbootemployee.repository.CompanyVersion;
+import com.thoughtworks.springbootemployee.repository.SalaryStatistics;
 import com.thoughtworks.springbootemployee.services.CompanyService;
+import com.thoughtworks.springbootemployee.services.CompanyUpdateResult;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/companies")
 public class CompaniesController {
+    private static final String COMPANY_WAS_MODIFIED = "Company ID %s was modified!";
+    private static final String UNKNOWN_INCLUDE = "Companies cannot include %s!";
+    private static final String INCLUDE_EMPLOYEES = "employees";
 
     private CompanyService companyService;
     private CompanyMapper companyMapper;
     private EmployeeMapper employeeMapper;
+    private CursorMapper cursorMapper;
+    private EtagMapper etagMapper;
+    private AsyncResponseExecutor asyncResponseExecutor;
 
     public CompaniesController(CompanyService companyService,
-                               CompanyMapper companyMapper, EmployeeMapper employeeMapper) {
+                               CompanyMapper companyMapper, EmployeeMapper employeeMapper,
+                               CursorMapper cursorMapper, EtagMapper etagMapper,
+                               AsyncResponseExecutor asyncResponseExecutor) {
         this.companyService = companyService;
         this.companyMapper = companyMapper;
         this.employeeMapper = employeeMapper;
+        this.cursorMapper = cursorMapper;
+        this.etagMapper = etagMapper;
+        this.asyncResponseExecutor = asyncResponseExecutor;
     }
 
     @GetMapping
-    public List<CompanyResponse> getAll() {
-        return companyService.getAll()
-                .stream().map(companyMapper::toResponse)
-                .collect(Collectors.toList());
+    public CompletableFuture<List<CompanyResponse>> getAll(@RequestParam(value = "include", required = false) List<String> include) {
+        boolean includeEmployees = includesEmployees(include);
+        return asyncResponseExecutor.respond(() -> toResponses(companyService.getAll(), includeEmployees));
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public CompanyResponse create(@RequestBody CompanyRequest companyRequest) {
+    public CompanyResponse create(@RequestParam(value = "include", required = false) List<String> include,
+                                  @RequestBody CompanyRequest companyRequest) {
+        boolean includeEmployees = includesEmployees(include);
         Company company = companyMapper.toEntity(companyRequest);
-        return companyMapper.toResponse(companyService.create(company));
+        return companyMapper.toResponse(companyService.create(company), includeEmployees);
     }
 
     @GetMapping("/{companyId}")
-    public CompanyResponse searchById(@PathVariable("companyId") Integer companyId) {
-        Company company = companyService.searchById(companyId);
-        return companyMapper.toResponse(company);
+    public ResponseEntity<CompanyResponse> searchById(@PathVariable("companyId") Integer companyId,
+                                                      @RequestParam(value = "include", required = false) List<String> include,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean includeEmployees = includesEmployees(include);
+        String representation = toRepresentation(includeEmployees);
+        if (ifNoneMatch != null) {
+            String currentEtag = etagMapper.toEtag(etagMapper.toEtag(companyService.getVersion(companyId)), accept,
+                    representation);
+            if (etagMapper.matchesIfNoneMatch(ifNoneMatch, currentEtag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentEtag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
+        if (includeEmployees) {
+            Company company = companyService.searchById(companyId);
+            return ResponseEntity.ok().eTag(etagMapper.toEtag(etagMapper.toEtag(company), accept, representation))
+                    .varyBy(HttpHeaders.ACCEPT).body(companyMapper.toResponse(company, true));
+        }
+        CompanySummary companySummary = companyService.getSummary(companyId);
+        return ResponseEntity.ok().eTag(etagMapper.toEtag(etagMapper.toEtag(companySummary), accept, representation))
+                .varyBy(HttpHeaders.ACCEPT).body(companyMapper.toResponse(companySummary, null));
     }
 
     @GetMapping("/{companyId}/employees")
-    public List<EmployeeResponse> getEmployeesByCompanyId(@PathVariable("companyId") Integer companyId) {
-        List<Employee> employees = companyService.getEmployeesByCompanyId(companyId);
-        return employees.stream().map(employeeMapper::toResponse)
-                .collect(Collectors.toList());
+    public CompletableFuture<List<EmployeeResponse>> getEmployeesByCompanyId(@PathVariable("companyId") Integer companyId) {
+        return asyncResponseExecutor.respond(() -> {
+            List<Employee> employees = companyService.getEmployeesByCompanyId(companyId);
+            return employees.stream().map(employeeMapper::toResponse)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @GetMapping(value = "/{companyId}/employees", params = {"page", "pageSize"})
+    public CompletableFuture<List<EmployeeResponse>> getEmployeesByCompanyIdAndPage(@PathVariable("companyId") Integer companyId,
+                                                                                    @RequestParam("page") Integer page,
+                                                                                    @RequestParam("pageSize") Integer pageSize) {
+        return asyncResponseExecutor.respond(() -> companyService.getEmployeesByCompanyIdAndPage(companyId, page, pageSize)
+                .stream().map(employeeMapper::toResponse)
+                .collect(Collectors.toList()));
+    }
+
+    @GetMapping(value = "/{companyId}/employees", params = "limit")
+    public CompletableFuture<SliceResponse<EmployeeResponse>> getEmployeesByCompanyIdAndCursor(@PathVariable("companyId") Integer companyId,
+                                                                                               @RequestParam(value = "after", required = false) String after,
+                                                                                               @RequestParam("limit") Integer limit) {
+        Integer afterId = cursorMapper.toId(after);
+        return asyncResponseExecutor.respond(() -> {
+            Slice<Employee> employeeSlice = companyService.getEmployeesByCompanyIdAfter(companyId, afterId, limit);
+            List<EmployeeResponse> employees = employeeSlice.stream().map(employeeMapper::toResponse)
+                    .collect(Collectors.toList());
+            String nextCursor = employeeSlice.hasNext()
+                    ? cursorMapper.toCursor(employees.get(employees.size() - 1).getId()) : null;
+            return new SliceResponse<>(employees, employeeSlice.hasNext(), nextCursor);
+        });
+    }
+
+    @GetMapping("/{companyId}/stats")
+    public CompletableFuture<List<SalaryStatistics>> getSalaryStatistics(@PathVariable("companyId") Integer companyId) {
+        return asyncResponseExecutor.respond(() -> companyService.getSalaryStatistics(companyId));
     }
 
     @PutMapping("/{companyId}")
-    public CompanyResponse update(@PathVariable("companyId") Integer companyId,
-                                  @RequestBody CompanyRequest updatedCompanyRequest) {
+    public ResponseEntity<CompanyUpdateResponse> update(@PathVariable("companyId") Integer companyId,
+                                                        @RequestParam(value = "include", required = false) List<String> include,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                        @RequestBody CompanyRequest updatedCompanyRequest) {
+        boolean includeEmployees = includesEmployees(include);
+        Integer expectedVersion = null;
+        if (ifMatch != null) {
+            CompanyVersion companyVersion = companyService.getVersion(companyId);
+            if (!etagMapper.matchesIfMatch(ifMatch, etagMapper.toEtag(companyVersion))) {
+                throw new PreconditionFailedException(String.format(COMPANY_WAS_MODIFIED, companyId));
+            }
+            expectedVersion = companyVersion.getVersion();
+        }
         Company updatedCompany = companyMapper.toEntity(updatedCompanyRequest);
-        return companyMapper.toResponse(companyService.update(companyId, updatedCompany));
+        CompanyUpdateResult result = companyService.update(companyId, updatedCompany, expectedVersion);
+        return ResponseEntity.ok().eTag(etagMapper.toEtag(etagMapper.toEtag(result.getCompany()), accept,
+                toRepresentation(includeEmployees))).varyBy(HttpHeaders.ACCEPT)
+                .body(companyMapper.toUpdateResponse(result, includeEmployees));
     }
 
     @DeleteMapping("/{companyId}")
@@ -77,10 +172,83 @@ public class CompaniesController {
         companyService.delete(companyId);
     }
 
+    @PostMapping("/batch-get")
+    public CompletableFuture<List<CompanyResponse>> searchByIds(@RequestParam(value = "include", required = false) List<String> include,
+                                                                @RequestBody IdsRequest idsRequest) {
+        boolean includeEmployees = includesEmployees(include);
+        return asyncResponseExecutor.respond(() -> toResponses(companyService.searchByIds(idsRequest.getIds()),
+                includeEmployees));
+    }
+
+    @DeleteMapping(params = "ids")
+    public BulkDeleteResponse deleteAll(@RequestParam("ids") List<Integer> ids) {
+        return companyService.deleteAll(ids);
+    }
+
     @GetMapping(params = {"page", "pageSize"})
-    public List<CompanyResponse> getCompaniesByPageAndPageSize(@RequestParam("page") Integer page,
-                                                               @RequestParam("pageSize") Integer pageSize) {
-        List<Company> companies = companyService.getCompaniesByPageAndPageSize(page, pageSize);
-        return companies.stream().map(companyMapper::toResponse).collect(Collectors.toList());
+    public CompletableFuture<List<CompanyResponse>> getCompaniesByPageAndPageSize(@RequestParam("page") Integer page,
+                                                                                  @RequestParam("pageSize") Integer pageSize,
+                                                                                  @RequestParam(value = "include", required = false) List<String> include) {
+        boolean includeEmployees = includesEmployees(include);
+        return asyncResponseExecutor.respond(() -> toResponses(
+                companyService.getCompaniesByPageAndPageSize(page, pageSize), includeEmployees));
+    }
+
+    @GetMapping(value = "/slice", params = {"page", "pageSize"})
+    public CompletableFuture<SliceResponse<CompanyResponse>> getCompanySliceByPage(@RequestParam("page") Integer page,
+                                                                                   @RequestParam("pageSize") Integer pageSize,
+                                                                                   @RequestParam(value = "include", required = false) List<String> include) {
+        boolean includeEmployees = includesEmployees(include);
+        return asyncResponseExecutor.respond(() -> {
+            Slice<CompanySummary> companySlice = companyService.getCompanySliceByPageAndPageSize(page, pageSize);
+            List<CompanyResponse> companies = toResponses(companySlice.getContent(), includeEmployees);
+            return new SliceResponse<>(companies, companySlice.hasNext(), null);
+        });
+    }
+
+    @GetMapping(params = "limit")
+    public CompletableFuture<SliceResponse<CompanyResponse>> getCompaniesByCursor(@RequestParam(value = "after", required = false) String after,
+                                                                                  @RequestParam("limit") Integer limit,
+                                                                                  @RequestParam(value = "include", required = false) List<String> include) {
+        Integer afterId = cursorMapper.toId(after);
+        boolean includeEmployees = includesEmployees(include);
+        return asyncResponseExecutor.respond(() -> {
+            Slice<CompanySummary> companySlice = companyService.getCompaniesAfter(afterId, limit);
+            List<CompanyResponse> companies = toResponses(companySlice.getContent(), includeEmployees);
+            String nextCursor = companySlice.hasNext()
+                    ? cursorMapper.toCursor(companies.get(companies.size() - 1).getId()) : null;
+            return new SliceResponse<>(companies, companySlice.hasNext(), nextCursor);
+        });
+    }
+
+    private List<CompanyResponse> toResponses(List<CompanySummary> companySummaries, boolean includeEmployees) {
+        Map<Integer, List<EmployeeResponse>> employees = includeEmployees
+                ? companyService.getEmployeeResponsesByCompanyIds(companySummaries.stream()
+                .map(CompanySummary::getCompanyId).collect(Collectors.toList()))
+                : Collections.emptyMap();
+        return companySummaries.stream()
+                .map(companySummary -> companyMapper.toResponse(companySummary, includeEmployees
+                        ? employees.getOrDefault(companySummary.getCompanyId(), Collections.emptyList()) : null))
+                .collect(Collectors.toList());
+    }
+
+    private String toRepresentation(boolean includeEmployees) {
+        return includeEmployees ? INCLUDE_EMPLOYEES : null;
+    }
+
+    private boolean includesEmployees(List<String> include) {
+        if (include == null) {
+            return false;
+        }
+        boolean includeEmployees = false;
+        for (String value : include) {
+            String trimmed = value.trim();
+            if (INCLUDE_EMPLOYEES.equals(trimmed)) {
+                includeEmployees = true;
+            } else if (!trimmed.isEmpty()) {
+                throw new BadRequestException(String.format(UNKNOWN_INCLUDE, trimmed));
+            }
+        }
+        return includeEmployees;
     }
 }
@@ -0,0 +1,65 @@
+package com.thoughtworks.springbootemployee.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class CompletedFutureReturnValueHandler implements HandlerMethodReturnValueHandler {
+    private final HandlerMethodReturnValueHandlerComposite delegates;
+
+    public CompletedFutureReturnValueHandler(List<HandlerMethodReturnValueHandler> delegates) {
+        this.delegates = new HandlerMethodReturnValueHandlerComposite().addHandlers(delegates);
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return CompletableFuture.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        CompletableFuture<?> future = (CompletableFuture<?>) returnValue;
+        if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+            delegates.handleReturnValue(future.join(), new CompletedValueParameter(returnType), mavContainer, webRequest);
+            return;
+        }
+        delegates.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+    }
+
+    private static class CompletedValueParameter extends MethodParameter {
+        private final ResolvableType valueType;
+
+        CompletedValueParameter(MethodParameter returnType) {
+            super(returnType);
+            this.valueType = ResolvableType.forMethodParameter(returnType).getGeneric();
+        }
+
+        private CompletedValueParameter(CompletedValueParameter original) {
+            super(original);
+            this.valueType = original.valueType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return valueType.resolve(Object.class);
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return valueType.getType();
+        }
+
+        @Override
+        public CompletedValueParameter clone() {
+            return new CompletedValueParameter(this);
+        }
+    }
+}
@@ -1,41 +1,95 @@
 package com.thoughtworks.springbootemployee.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.thoughtworks.springbootemployee.dto.BulkDeleteResponse;
+import com.thoughtworks.springbootemployee.dto.BulkImportResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeFilter;
 import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
 import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.dto.IdsRequest;
+import com.thoughtworks.springbootemployee.dto.SliceResponse;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import com.thoughtworks.springbootemployee.mapper.CursorMapper;
 import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.mapper.EtagMapper;
 import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.SalaryStatistics;
+import com.thoughtworks.springbootemployee.services.EmployeeExportService;
+import com.thoughtworks.springbootemployee.services.EmployeeImportService;
+import com.thoughtworks.springbootemployee.services.EmployeeSearchService;
 import com.thoughtworks.springbootemployee.services.EmployeeService;
+import com.thoughtworks.springbootemployee.services.EmployeeUpdateCoalescer;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/employees")
 public class EmployeesController {
+    private static final String EMPLOYEE_WAS_MODIFIED = "Employee with an ID of %s was modified!";
 
     private final EmployeeService employeeService;
     private final EmployeeMapper employeeMapper;
+    private final CursorMapper cursorMapper;
+    private final EmployeeImportService employeeImportService;
+    private final EmployeeExportService employeeExportService;
+    private final ObjectMapper objectMapper;
+    private final EtagMapper etagMapper;
+    private final AsyncResponseExecutor asyncResponseExecutor;
+    private final EmployeeSearchService employeeSearchService;
+    private final EmployeeUpdateCoalescer employeeUpdateCoalescer;
 
-    public EmployeesController(EmployeeService employeeService, EmployeeMapper employeeMapper) {
+    public EmployeesController(EmployeeService employeeService, EmployeeMapper employeeMapper,
+                               CursorMapper cursorMapper, EmployeeImportService employeeImportService,
+                               EmployeeExportService employeeExportService, ObjectMapper objectMapper,
+                               EtagMapper etagMapper, AsyncResponseExecutor asyncResponseExecutor,
+                               EmployeeSearchService employeeSearchService,
+                               EmployeeUpdateCoalescer employeeUpdateCoalescer) {
         this.employeeService = employeeService;
         this.employeeMapper = employeeMapper;
+        this.cursorMapper = cursorMapper;
+        this.employeeImportService = employeeImportService;
+        this.employeeExportService = employeeExportService;
+        this.objectMapper = objectMapper;
+        this.etagMapper = etagMapper;
+        this.asyncResponseExecutor = asyncResponseExecutor;
+        this.employeeSearchService = employeeSearchService;
+        this.employeeUpdateCoalescer = employeeUpdateCoalescer;
     }
 
     @GetMapping
-    public List<EmployeeResponse> getAll() {
-        return employeeService.getAll().stream().map(employeeMapper::toResponse).collect(Collectors.toList());
+    public CompletableFuture<List<?>> getAll(EmployeeFilter filter, @RequestParam(value = "fields", required = false) String fields) {
+        return asyncResponseExecutor.respond(() -> fields == null ? employeeService.searchResponses(filter)
+                : employeeService.searchFields(filter, fields));
     }
 
     @PostMapping
@@ -45,17 +99,98 @@ public class EmployeesController {
         return employeeMapper.toResponse(employeeService.create(entry));
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_NDJSON_VALUE})
+    public BulkImportResponse bulkCreate(HttpServletRequest request) throws IOException {
+        try (MappingIterator<EmployeeRequest> employeeRequests = objectMapper.readerFor(EmployeeRequest.class)
+                .readValues(request.getInputStream())) {
+            Iterator<Employee> employees = new Iterator<Employee>() {
+                @Override
+                public boolean hasNext() {
+                    return employeeRequests.hasNext();
+                }
+
+                @Override
+                public Employee next() {
+                    return employeeMapper.toEntity(employeeRequests.next());
+                }
+            };
+            return employeeImportService.importEmployees(employees);
+        }
+    }
+
+    @GetMapping(value = "/export", produces = MediaTypes.APPLICATION_NDJSON_VALUE)
+    public void export(@RequestParam(value = "fields", required = false) String fields, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaTypes.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ObjectWriter employeeWriter = objectMapper.writerFor(fields == null ? EmployeeResponse.class : Map.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            if (fields == null) {
+                employeeExportService.forEachEmployee(employee ->
+                        writeLine(generator, employeeWriter, employeeMapper.toResponse(employee)));
+            } else {
+                employeeExportService.forEachRow(fields, row -> writeLine(generator, employeeWriter, row));
+            }
+        }
+    }
+
+    @GetMapping("/stats")
+    public CompletableFuture<List<SalaryStatistics>> getSalaryStatistics(@RequestParam(value = "groupBy", defaultValue = "gender") String groupBy) {
+        return asyncResponseExecutor.respond(() -> employeeService.getSalaryStatistics(groupBy));
+    }
+
+    @GetMapping("/search")
+    public CompletableFuture<List<?>> search(@RequestParam("q") String query,
+                                             @RequestParam(value = "limit", required = false) Integer limit,
+                                             @RequestParam(value = "fields", required = false) String fields) {
+        return asyncResponseExecutor.respond(() -> fields == null ? employeeSearchService.search(query, limit)
+                : employeeSearchService.searchFields(query, limit, fields));
+    }
+
     @GetMapping("/{employeeId}")
-    public EmployeeResponse searchById(@PathVariable("employeeId") Integer employeeId) {
+    public ResponseEntity<?> searchById(@PathVariable("employeeId") Integer employeeId,
+                                        @RequestParam(value = "fields", required = false) String fields,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String currentEtag = null;
+        if (ifNoneMatch != null) {
+            currentEtag = etagMapper.toEtag(etagMapper.toEtag(employeeService.getVersion(employeeId)), accept, fields);
+            if (etagMapper.matchesIfNoneMatch(ifNoneMatch, currentEtag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentEtag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
+        if (fields != null) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+            if (currentEtag != null) {
+                response.eTag(currentEtag);
+            }
+            return response.body(employeeService.searchFieldsById(employeeId, fields));
+        }
         Employee employee = employeeService.searchById(employeeId);
-        return employeeMapper.toResponse(employee);
+        return ResponseEntity.ok().eTag(etagMapper.toEtag(etagMapper.toEtag(employee), accept, null))
+                .varyBy(HttpHeaders.ACCEPT).body(employeeMapper.toResponse(employee));
     }
 
     @PutMapping("/{employeeId}")
-    public EmployeeResponse update(@PathVariable("employeeId") Integer employeeId,
-                                   @RequestBody EmployeeRequest updatedEmployee) {
-        Employee employee = employeeMapper.toEntity(updatedEmployee);
-        return employeeMapper.toResponse(employeeService.update(employeeId, employee));
+    public CompletableFuture<ResponseEntity<EmployeeResponse>> update(@PathVariable("employeeId") Integer employeeId,
+                                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                      @RequestBody EmployeeRequest updatedEmployee) {
+        Integer expectedVersion = null;
+        if (ifMatch != null) {
+            expectedVersion = employeeService.getVersion(employeeId);
+            if (!etagMapper.matchesIfMatch(ifMatch, etagMapper.toEtag(expectedVersion))) {
+                throw new PreconditionFailedException(String.format(EMPLOYEE_WAS_MODIFIED, employeeId));
+            }
+        }
+        Employee entry = employeeMapper.toEntity(updatedEmployee);
+        if (employeeUpdateCoalescer.isEnabled()) {
+            return employeeUpdateCoalescer.submit(employeeId, entry, expectedVersion)
+                    .thenApply(employee -> toUpdateResponse(employee, accept));
+        }
+        return CompletableFuture.completedFuture(toUpdateResponse(employeeService.update(employeeId, entry, expectedVersion),
+                accept));
     }
 
     @DeleteMapping("/{employeeId}")
@@ -63,16 +198,75 @@ public class EmployeesController {
         employeeService.delete(employeeId);
     }
 
-    @GetMapping(params = "gender")
-    public List<EmployeeResponse> getByGender(@RequestParam("gender") String gender) {
-        List<Employee> employeeList = employeeService.searchByGender(gender);
-        return employeeList.stream().map(employeeMapper::toResponse).collect(Collectors.toList());
+    @PostMapping("/batch-get")
+    public CompletableFuture<List<?>> searchByIds(@RequestParam(value = "fields", required = false) String fields, @RequestBody IdsRequest idsRequest) {
+        return asyncResponseExecutor.respond(() -> fields == null
+                ? employeeService.searchResponsesByIds(idsRequest.getIds())
+                : employeeService.searchFieldsByIds(idsRequest.getIds(), fields));
+    }
+
+    @DeleteMapping(params = "ids")
+    public BulkDeleteResponse deleteAll(@RequestParam("ids") List<Integer> ids) {
+        return employeeService.deleteAll(ids);
     }
 
     @GetMapping(params = {"page", "pageSize"})
-    public List<EmployeeResponse> getByEmployeeByPage(@RequestParam("page") Integer page,
-                                                      @RequestParam("pageSize") Integer pageSize) {
-        List<Employee> employeeList = employeeService.getEmployeeByPageAndPageSize(page,pageSize);
-        return employeeList.stream().map(employeeMapper::toResponse).collect(Collectors.toList());
+    public CompletableFuture<List<?>> getByEmployeeByPage(@RequestParam("page") Integer page,
+                                                          @RequestParam("pageSize") Integer pageSize,
+                                                          EmployeeFilter filter,
+                                                          @RequestParam(value = "fields", required = false) String fields) {
+        return asyncResponseExecutor.respond(() -> fields == null
+                ? employeeService.getEmployeeResponsesByPageAndPageSize(page, pageSize, filter)
+                : employeeService.getEmployeeFieldsByPageAndPageSize(page, pageSize, filter, fields));
+    }
+
+    @GetMapping(value = "/slice", params = {"page", "pageSize"})
+    public CompletableFuture<SliceResponse<?>> getEmployeeSliceByPage(@RequestParam("page") Integer page,
+                                                                      @RequestParam("pageSize") Integer pageSize,
+                                                                      @RequestParam(value = "fields", required = false) String fields) {
+        return asyncResponseExecutor.respond(() -> {
+            Slice<?> employeeSlice = fields == null
+                    ? employeeService.getEmployeeSliceByPageAndPageSize(page, pageSize)
+                    : employeeService.getEmployeeFieldSliceByPageAndPageSize(page, pageSize, fields);
+            return new SliceResponse<>(employeeSlice.getContent(), employeeSlice.hasNext(), null);
+        });
+    }
+
+    @GetMapping(params = "limit")
+    public CompletableFuture<SliceResponse<?>> getEmployeesByCursor(@RequestParam(value = "after", required = false) String after,
+                                                                    @RequestParam("limit") Integer limit,
+                                                                    @RequestParam(value = "fields", required = false) String fields) {
+        Integer afterId = cursorMapper.toId(after);
+        if (fields != null) {
+            return asyncResponseExecutor.respond(() -> {
+                Slice<Map<String, Object>> employeeSlice = employeeService.getEmployeeFieldsAfter(afterId, limit, fields);
+                List<Map<String, Object>> employees = employeeSlice.getContent();
+                String nextCursor = employeeSlice.hasNext()
+                        ? cursorMapper.toCursor((Integer) employees.get(employees.size() - 1).get("id")) : null;
+                return new SliceResponse<>(employees, employeeSlice.hasNext(), nextCursor);
+            });
+        }
+        return asyncResponseExecutor.respond(() -> {
+            Slice<Employee> employeeSlice = employeeService.getEmployeesAfter(afterId, limit);
+            List<EmployeeResponse> employees = employeeSlice.stream().map(employeeMapper::toResponse)
+                    .collect(Collectors.toList());
+            String nextCursor = employeeSlice.hasNext()
+                    ? cursorMapper.toCursor(employees.get(employees.size() - 1).getId()) : null;
+            return new SliceResponse<>(employees, employeeSlice.hasNext(), nextCursor);
+        });
+    }
+
+    private ResponseEntity<EmployeeResponse> toUpdateResponse(Employee employee, String accept) {
+        return ResponseEntity.ok().eTag(etagMapper.toEtag(etagMapper.toEtag(employee), accept, null))
+                .varyBy(HttpHeaders.ACCEPT).body(employeeMapper.toResponse(employee));
+    }
+
+    private void writeLine(JsonGenerator generator, ObjectWriter writer, Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
     }
 }
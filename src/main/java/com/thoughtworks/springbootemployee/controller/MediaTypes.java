@@ -0,0 +1,9 @@
+package com.thoughtworks.springbootemployee.controller;
+
+public final class MediaTypes {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private MediaTypes() {
+    }
+}
@@ -0,0 +1,30 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class BulkDeleteResponse {
+    private Integer requested;
+    private Integer deleted;
+
+    public BulkDeleteResponse() {
+    }
+
+    public BulkDeleteResponse(Integer requested, Integer deleted) {
+        this.requested = requested;
+        this.deleted = deleted;
+    }
+
+    public Integer getRequested() {
+        return requested;
+    }
+
+    public void setRequested(Integer requested) {
+        this.requested = requested;
+    }
+
+    public Integer getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(Integer deleted) {
+        this.deleted = deleted;
+    }
+}
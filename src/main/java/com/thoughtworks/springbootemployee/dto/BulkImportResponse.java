@@ -0,0 +1,42 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.List;
+
+public class BulkImportResponse {
+    private Integer inserted;
+    private Integer failed;
+    private List<ImportChunkResponse> chunks;
+
+    public BulkImportResponse() {
+    }
+
+    public BulkImportResponse(Integer inserted, Integer failed, List<ImportChunkResponse> chunks) {
+        this.inserted = inserted;
+        this.failed = failed;
+        this.chunks = chunks;
+    }
+
+    public Integer getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(Integer inserted) {
+        this.inserted = inserted;
+    }
+
+    public Integer getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+
+    public List<ImportChunkResponse> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<ImportChunkResponse> chunks) {
+        this.chunks = chunks;
+    }
+}
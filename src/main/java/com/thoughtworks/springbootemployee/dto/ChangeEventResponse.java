@@ -0,0 +1,62 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.time.Instant;
+
+public class ChangeEventResponse {
+    private Long seq;
+    private String entityType;
+    private Integer entityId;
+    private String operation;
+    private Instant changedAt;
+
+    public ChangeEventResponse() {
+    }
+
+    public ChangeEventResponse(Long seq, String entityType, Integer entityId, String operation, Instant changedAt) {
+        this.seq = seq;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.changedAt = changedAt;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Integer getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Integer entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class CompanyEmployeeRequest extends EmployeeRequest {
+    private Integer id;
+
+    public CompanyEmployeeRequest() {
+    }
+
+    public CompanyEmployeeRequest(Integer id, String name, Integer age, String gender, Integer salary) {
+        super(name, age, gender, salary);
+        this.id = id;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+}
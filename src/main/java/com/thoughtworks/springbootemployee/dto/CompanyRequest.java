@@ -1,18 +1,16 @@
 package com.thoughtworks.springbootemployee.dto;
 
-import com.thoughtworks.springbootemployee.model.Employee;
-
 import java.util.List;
 
 public class CompanyRequest {
     private String companyName;
-    private List<Employee> employees;
+    private List<CompanyEmployeeRequest> employees;
 
     public CompanyRequest() {
 
     }
 
-    public CompanyRequest(String companyName, List<Employee> employees) {
+    public CompanyRequest(String companyName, List<CompanyEmployeeRequest> employees) {
         this.companyName = companyName;
         this.employees = employees;
     }
@@ -25,11 +23,11 @@ public class CompanyRequest {
         this.companyName = companyName;
     }
 
-    public void setEmployees(List<Employee> employees) {
+    public void setEmployees(List<CompanyEmployeeRequest> employees) {
         this.employees = employees;
     }
 
-    public List<Employee> getEmployees() {
+    public List<CompanyEmployeeRequest> getEmployees() {
         return employees;
     }
 
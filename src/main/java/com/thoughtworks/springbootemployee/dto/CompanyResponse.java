@@ -1,19 +1,22 @@
 package com.thoughtworks.springbootemployee.dto;
 
-import com.thoughtworks.springbootemployee.model.Employee;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.List;
 
 public class CompanyResponse {
     private Integer id;
     private String companyName;
-    private List<Employee> employees;
+    private Long employeeCount;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<EmployeeResponse> employees;
 
     public CompanyResponse() {
     }
 
-    public CompanyResponse(String companyName, List<Employee> employees) {
+    public CompanyResponse(String companyName, Long employeeCount, List<EmployeeResponse> employees) {
         this.companyName = companyName;
+        this.employeeCount = employeeCount;
         this.employees = employees;
     }
 
@@ -33,11 +36,19 @@ public class CompanyResponse {
         this.companyName = companyName;
     }
 
-    public List<Employee> getEmployees() {
+    public Long getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public void setEmployeeCount(Long employeeCount) {
+        this.employeeCount = employeeCount;
+    }
+
+    public List<EmployeeResponse> getEmployees() {
         return employees;
     }
 
-    public void setEmployees(List<Employee> employees) {
+    public void setEmployees(List<EmployeeResponse> employees) {
         this.employees = employees;
     }
 }
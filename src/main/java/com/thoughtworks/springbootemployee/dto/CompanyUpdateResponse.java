@@ -0,0 +1,54 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.List;
+
+public class CompanyUpdateResponse extends CompanyResponse {
+    private Integer inserted;
+    private Integer updated;
+    private Integer deleted;
+    private Integer changedRows;
+
+    public CompanyUpdateResponse() {
+    }
+
+    public CompanyUpdateResponse(String companyName, Long employeeCount, List<EmployeeResponse> employees,
+                                 Integer inserted, Integer updated, Integer deleted) {
+        super(companyName, employeeCount, employees);
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.changedRows = inserted + updated + deleted;
+    }
+
+    public Integer getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(Integer inserted) {
+        this.inserted = inserted;
+    }
+
+    public Integer getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Integer updated) {
+        this.updated = updated;
+    }
+
+    public Integer getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(Integer deleted) {
+        this.deleted = deleted;
+    }
+
+    public Integer getChangedRows() {
+        return changedRows;
+    }
+
+    public void setChangedRows(Integer changedRows) {
+        this.changedRows = changedRows;
+    }
+}
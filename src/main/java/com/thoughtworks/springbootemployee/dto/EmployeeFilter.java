@@ -0,0 +1,88 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class EmployeeFilter {
+    private Integer ageMin;
+    private Integer ageMax;
+    private Integer salaryMin;
+    private Integer salaryMax;
+    private String namePrefix;
+    private Integer companyId;
+    private String gender;
+    private String sort;
+
+    public EmployeeFilter() {
+    }
+
+    public Integer getAgeMin() {
+        return ageMin;
+    }
+
+    public void setAgeMin(Integer ageMin) {
+        this.ageMin = ageMin;
+    }
+
+    public Integer getAgeMax() {
+        return ageMax;
+    }
+
+    public void setAgeMax(Integer ageMax) {
+        this.ageMax = ageMax;
+    }
+
+    public Integer getSalaryMin() {
+        return salaryMin;
+    }
+
+    public void setSalaryMin(Integer salaryMin) {
+        this.salaryMin = salaryMin;
+    }
+
+    public Integer getSalaryMax() {
+        return salaryMax;
+    }
+
+    public void setSalaryMax(Integer salaryMax) {
+        this.salaryMax = salaryMax;
+    }
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    public void setNamePrefix(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    public Integer getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(Integer companyId) {
+        this.companyId = companyId;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public void setGender(String gender) {
+        this.gender = gender;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public boolean hasCriteria() {
+        return ageMin != null || ageMax != null || salaryMin != null || salaryMax != null
+                || namePrefix != null || companyId != null;
+    }
+
+    public boolean isEmpty() {
+        return !hasCriteria() && gender == null && sort == null;
+    }
+}
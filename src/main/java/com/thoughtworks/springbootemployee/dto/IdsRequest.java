@@ -0,0 +1,22 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.List;
+
+public class IdsRequest {
+    private List<Integer> ids;
+
+    public IdsRequest() {
+    }
+
+    public IdsRequest(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,50 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class ImportChunkResponse {
+    private Integer chunk;
+    private Integer size;
+    private Integer inserted;
+    private String error;
+
+    public ImportChunkResponse() {
+    }
+
+    public ImportChunkResponse(Integer chunk, Integer size, Integer inserted, String error) {
+        this.chunk = chunk;
+        this.size = size;
+        this.inserted = inserted;
+        this.error = error;
+    }
+
+    public Integer getChunk() {
+        return chunk;
+    }
+
+    public void setChunk(Integer chunk) {
+        this.chunk = chunk;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public Integer getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(Integer inserted) {
+        this.inserted = inserted;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
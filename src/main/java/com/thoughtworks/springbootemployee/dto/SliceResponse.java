@@ -0,0 +1,42 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.List;
+
+public class SliceResponse<T> {
+    private List<T> content;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public SliceResponse() {
+    }
+
+    public SliceResponse(List<T> content, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
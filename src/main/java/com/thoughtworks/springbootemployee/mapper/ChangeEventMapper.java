@@ -0,0 +1,19 @@
+package com.thoughtworks.springbootemployee.mapper;
+
+import com.thoughtworks.springbootemployee.dto.ChangeEventResponse;
+import com.thoughtworks.springbootemployee.model.ChangeEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+@Component
+public class ChangeEventMapper {
+    public ChangeEventResponse toResponse(ChangeEvent changeEvent) {
+        return new ChangeEventResponse(changeEvent.getSeq(), toName(changeEvent.getEntityType()),
+                changeEvent.getEntityId(), toName(changeEvent.getOperation()), changeEvent.getChangedAt());
+    }
+
+    public String toName(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,24 +1,73 @@
 package com.thoughtworks.springbootemployee.mapper;
 
+import com.thoughtworks.springbootemployee.dto.CompanyEmployeeRequest;
 import com.thoughtworks.springbootemployee.dto.CompanyRequest;
 import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.CompanyUpdateResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
 import com.thoughtworks.springbootemployee.model.Company;
-import org.springframework.beans.BeanUtils;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.CompanySummary;
+import com.thoughtworks.springbootemployee.services.CompanyUpdateResult;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class CompanyMapper {
-    public CompanyResponse toResponse(Company company) {
-        CompanyResponse companyResponse = new CompanyResponse();
-        BeanUtils.copyProperties(company, companyResponse);
+    private final EmployeeMapper employeeMapper;
+
+    public CompanyMapper(EmployeeMapper employeeMapper) {
+        this.employeeMapper = employeeMapper;
+    }
 
+    public CompanyResponse toResponse(Company company, boolean includeEmployees) {
+        CompanyResponse companyResponse = new CompanyResponse(company.getCompanyName(),
+                countOf(company.getEmployees()), includeEmployees ? toResponses(company.getEmployees()) : null);
         companyResponse.setId(company.getCompanyId());
         return companyResponse;
     }
 
+    public CompanyResponse toResponse(CompanySummary companySummary, List<EmployeeResponse> employees) {
+        CompanyResponse companyResponse = new CompanyResponse(companySummary.getCompanyName(),
+                companySummary.getEmployeeCount(), employees);
+        companyResponse.setId(companySummary.getCompanyId());
+        return companyResponse;
+    }
+
+    public CompanyUpdateResponse toUpdateResponse(CompanyUpdateResult result, boolean includeEmployees) {
+        Company company = result.getCompany();
+        CompanyUpdateResponse companyUpdateResponse = new CompanyUpdateResponse(company.getCompanyName(),
+                countOf(company.getEmployees()), includeEmployees ? toResponses(company.getEmployees()) : null,
+                result.getInserted(), result.getUpdated(), result.getDeleted());
+        companyUpdateResponse.setId(company.getCompanyId());
+        return companyUpdateResponse;
+    }
+
     public Company toEntity(CompanyRequest companyRequest) {
-        Company company = new Company();
-        BeanUtils.copyProperties(companyRequest, company);
-        return company;
+        List<CompanyEmployeeRequest> employeeRequests = companyRequest.getEmployees();
+        if (employeeRequests == null) {
+            return new Company(companyRequest.getCompanyName(), null);
+        }
+        List<Employee> employees = new ArrayList<>(employeeRequests.size());
+        for (CompanyEmployeeRequest employeeRequest : employeeRequests) {
+            Employee employee = employeeMapper.toEntity(employeeRequest);
+            employee.setId(employeeRequest.getId());
+            employees.add(employee);
+        }
+        return new Company(companyRequest.getCompanyName(), employees);
+    }
+
+    private long countOf(List<Employee> employees) {
+        return employees == null ? 0 : employees.size();
+    }
+
+    private List<EmployeeResponse> toResponses(List<Employee> employees) {
+        List<EmployeeResponse> employeeResponses = new ArrayList<>(employees == null ? 0 : employees.size());
+        if (employees != null) {
+            employees.forEach(employee -> employeeResponses.add(employeeMapper.toResponse(employee)));
+        }
+        return employeeResponses;
     }
 }
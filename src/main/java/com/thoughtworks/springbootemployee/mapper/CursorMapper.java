@@ -0,0 +1,33 @@
+package com.thoughtworks.springbootemployee.mapper;
+
+import com.thoughtworks.springbootemployee.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Component
+public class CursorMapper {
+    private static final String CURSOR_PREFIX = "id:";
+    private static final String INVALID_CURSOR = "Cursor %s is not valid!";
+
+    public String toCursor(Integer id) {
+        byte[] cursor = (CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor);
+    }
+
+    public Integer toId(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new BadRequestException(String.format(INVALID_CURSOR, cursor));
+            }
+            return Integer.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException exception) {
+            throw new BadRequestException(String.format(INVALID_CURSOR, cursor));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.thoughtworks.springbootemployee.mapper;
+
+import com.thoughtworks.springbootemployee.controller.MediaTypes;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.CompanyVersion;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+public class EtagMapper {
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String REPRESENTATION_SEPARATOR = "+";
+    private static final List<MediaType> ENCODINGS = Arrays.asList(MediaType.APPLICATION_JSON,
+            MediaType.valueOf(MediaTypes.APPLICATION_SMILE_VALUE), MediaType.APPLICATION_CBOR);
+
+    public String toEtag(Integer employeeVersion) {
+        return quote(String.valueOf(employeeVersion));
+    }
+
+    public String toEtag(Employee employee) {
+        return toEtag(employee.getVersion());
+    }
+
+    public String toEtag(CompanyVersion companyVersion) {
+        return toEtag(companyVersion.getVersion(), companyVersion.getEmployeeCount(),
+                companyVersion.getEmployeeVersionSum());
+    }
+
+    public String toEtag(Company company) {
+        List<Employee> employees = company.getEmployees();
+        long employeeCount = employees == null ? 0 : employees.size();
+        long employeeVersionSum = employees == null ? 0
+                : employees.stream().mapToLong(employee -> employee.getVersion() == null ? 0 : employee.getVersion()).sum();
+        return toEtag(company.getVersion(), employeeCount, employeeVersionSum);
+    }
+
+    public String toEtag(String etag, String accept, String representation) {
+        StringBuilder variant = new StringBuilder(etag.substring(0, etag.length() - 1));
+        MediaType encoding = negotiate(accept);
+        if (!MediaType.APPLICATION_JSON.equals(encoding)) {
+            variant.append(REPRESENTATION_SEPARATOR).append(encoding.getSubtype());
+        }
+        if (representation != null) {
+            variant.append(REPRESENTATION_SEPARATOR).append(representation.trim().replaceAll("[\\s,\"]+", "."));
+        }
+        return variant.append('"').toString();
+    }
+
+    public boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (ANY.equals(trimmed) || etag.equals(trimmed.startsWith(WEAK_PREFIX)
+                    ? trimmed.substring(WEAK_PREFIX.length()) : trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean matchesIfMatch(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (ANY.equals(trimmed) || etag.equals(withoutRepresentation(trimmed))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String toEtag(Integer companyVersion, Long employeeCount, Long employeeVersionSum) {
+        return quote(companyVersion + "-" + employeeCount + "-" + (employeeVersionSum == null ? 0 : employeeVersionSum));
+    }
+
+    private MediaType negotiate(String accept) {
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException exception) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType encoding : ENCODINGS) {
+                if (acceptedType.getQualityValue() > 0 && acceptedType.isCompatibleWith(encoding)) {
+                    return encoding;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private String withoutRepresentation(String etag) {
+        int separator = etag.indexOf(REPRESENTATION_SEPARATOR);
+        return separator < 0 ? etag : quote(etag.substring(1, separator));
+    }
+
+    private String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,72 @@
+package com.thoughtworks.springbootemployee.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryCountFilter extends OncePerRequestFilter {
+    static final String METRIC_NAME = "http.server.requests.queries";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    private static final String QUERY_COUNT_ATTRIBUTE = QueryCountFilter.class.getName() + ".count";
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    public QueryCountFilter(QueryCounter queryCounter, MeterRegistry meterRegistry) {
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            queryCounter.attach((AtomicInteger) request.getAttribute(QUERY_COUNT_ATTRIBUTE));
+        } else {
+            queryCounter.start();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            AtomicInteger queries = queryCounter.detach();
+            if (isAsyncStarted(request)) {
+                request.setAttribute(QUERY_COUNT_ATTRIBUTE, queries);
+            } else {
+                Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                summary(request.getMethod(), uri == null ? UNKNOWN_URI : uri.toString())
+                        .record(queries == null ? 0 : queries.get());
+            }
+        }
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        Map<String, DistributionSummary> summariesByMethod = summaries.get(uri);
+        if (summariesByMethod == null) {
+            summariesByMethod = summaries.computeIfAbsent(uri, key -> new ConcurrentHashMap<>());
+        }
+        DistributionSummary summary = summariesByMethod.get(method);
+        if (summary == null) {
+            summary = summariesByMethod.computeIfAbsent(method, key -> DistributionSummary.builder(METRIC_NAME)
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(meterRegistry));
+        }
+        return summary;
+    }
+}
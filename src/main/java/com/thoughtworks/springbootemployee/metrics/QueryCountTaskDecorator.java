@@ -0,0 +1,26 @@
+package com.thoughtworks.springbootemployee.metrics;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryCountTaskDecorator implements TaskDecorator {
+    private final QueryCounter queryCounter;
+
+    public QueryCountTaskDecorator(QueryCounter queryCounter) {
+        this.queryCounter = queryCounter;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        AtomicInteger count = queryCounter.current();
+        return () -> {
+            queryCounter.attach(count);
+            try {
+                runnable.run();
+            } finally {
+                queryCounter.detach();
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.thoughtworks.springbootemployee.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryCounter {
+    private final ThreadLocal<AtomicInteger> counts = new ThreadLocal<>();
+
+    public void start() {
+        counts.set(new AtomicInteger());
+    }
+
+    public AtomicInteger current() {
+        return counts.get();
+    }
+
+    public void attach(AtomicInteger count) {
+        if (count == null) {
+            counts.remove();
+        } else {
+            counts.set(count);
+        }
+    }
+
+    public void increment() {
+        AtomicInteger count = counts.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    public AtomicInteger detach() {
+        AtomicInteger count = counts.get();
+        counts.remove();
+        return count;
+    }
+}
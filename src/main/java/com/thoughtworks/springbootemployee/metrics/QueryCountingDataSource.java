@@ -0,0 +1,75 @@
+package com.thoughtworks.springbootemployee.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class QueryCountingDataSource extends DelegatingDataSource {
+    private static final String EXECUTE_PREFIX = "execute";
+    private static final String EQUALS = "equals";
+    private static final String HASH_CODE = "hashCode";
+
+    private final QueryCounter queryCounter;
+
+    public QueryCountingDataSource(DataSource targetDataSource, QueryCounter queryCounter) {
+        super(targetDataSource);
+        this.queryCounter = queryCounter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return countingStatement(method.getReturnType(), (Statement) result);
+            }
+            return result;
+        });
+    }
+
+    private Object countingStatement(Class<?> statementType, Statement statement) {
+        return proxy(statementType, (proxy, method, args) -> {
+            if (method.getName().startsWith(EXECUTE_PREFIX)) {
+                queryCounter.increment();
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (EQUALS.equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    if (HASH_CODE.equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return handler.invoke(proxy, method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getTargetException();
+        }
+    }
+}
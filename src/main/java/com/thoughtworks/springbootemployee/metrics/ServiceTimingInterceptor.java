@@ -0,0 +1,72 @@
+package com.thoughtworks.springbootemployee.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class ServiceTimingInterceptor implements MethodInterceptor {
+    public static final String POINTCUT =
+            "execution(public * com.thoughtworks.springbootemployee.services.EmployeeService.*(..))"
+                    + " || execution(public * com.thoughtworks.springbootemployee.services.CompanyService.*(..))";
+    static final String METRIC_NAME = "service.method";
+    private static final String NO_EXCEPTION = "none";
+
+    private final Supplier<MeterRegistry> meterRegistrySupplier;
+    private volatile MeterRegistry meterRegistry;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<Method, Map<Class<?>, Timer>> failureTimers = new ConcurrentHashMap<>();
+
+    public ServiceTimingInterceptor(Supplier<MeterRegistry> meterRegistrySupplier) {
+        this.meterRegistrySupplier = meterRegistrySupplier;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry registry = meterRegistry();
+        long start = registry.config().clock().monotonicTime();
+        Method method = invocation.getMethod();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable throwable) {
+            record(failureTimers.computeIfAbsent(method, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(throwable.getClass(), type -> timer(registry, method, type.getSimpleName())),
+                    registry, start);
+            throw throwable;
+        }
+        Timer timer = successTimers.get(method);
+        if (timer == null) {
+            timer = successTimers.computeIfAbsent(method, key -> timer(registry, key, NO_EXCEPTION));
+        }
+        record(timer, registry, start);
+        return result;
+    }
+
+    private MeterRegistry meterRegistry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistrySupplier.get();
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+
+    private void record(Timer timer, MeterRegistry registry, long start) {
+        timer.record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(MeterRegistry registry, Method method, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,6 @@
+package com.thoughtworks.springbootemployee.model;
+
+public enum ChangeEntityType {
+    EMPLOYEE,
+    COMPANY
+}
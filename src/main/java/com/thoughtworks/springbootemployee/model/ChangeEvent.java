@@ -0,0 +1,56 @@
+package com.thoughtworks.springbootemployee.model;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import java.time.Instant;
+
+@Entity
+public class ChangeEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+    @Enumerated(EnumType.STRING)
+    private ChangeEntityType entityType;
+    private Integer entityId;
+    @Enumerated(EnumType.STRING)
+    private ChangeOperation operation;
+    private Instant changedAt;
+
+    public ChangeEvent() {
+    }
+
+    public ChangeEvent(ChangeEntityType entityType, Integer entityId, ChangeOperation operation, Instant changedAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.changedAt = changedAt;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public ChangeEntityType getEntityType() {
+        return entityType;
+    }
+
+    public Integer getEntityId() {
+        return entityId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
@@ -1,11 +1,21 @@
 package com.thoughtworks.springbootemployee.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.thoughtworks.springbootemployee.cache.CacheRegions;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Version;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EMPLOYEES)
 public class Employee {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,6 +24,12 @@ public class Employee {
     private Integer age;
     private String gender;
     private Integer salary;
+    @Version
+    @JsonIgnore
+    private Integer version;
+    @Column(name = "company_id", insertable = false, updatable = false)
+    @JsonIgnore
+    private Integer companyId;
 
     public Employee() {
     }
@@ -21,7 +37,7 @@ public class Employee {
     public Employee(String name, Integer age, String gender, Integer salary) {
         this.name = name;
         this.age = age;
-        this.gender = gender;
+        this.gender = Gender.normalize(gender);
         this.salary = salary;
     }
 
@@ -54,7 +70,7 @@ public class Employee {
     }
 
     public void setGender(String gender) {
-        this.gender = gender;
+        this.gender = Gender.normalize(gender);
     }
 
     public Integer getSalary() {
@@ -64,4 +80,16 @@ public class Employee {
     public void setSalary(Integer salary) {
         this.salary = salary;
     }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public Integer getCompanyId() {
+        return companyId;
+    }
 }
@@ -0,0 +1,12 @@
+package com.thoughtworks.springbootemployee.model;
+
+import java.util.Locale;
+
+public final class Gender {
+    private Gender() {
+    }
+
+    public static String normalize(String gender) {
+        return gender == null ? null : gender.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,45 @@
+package com.thoughtworks.springbootemployee.repository;
+
+import com.thoughtworks.springbootemployee.model.ChangeEvent;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class ChangeEventBatchRepository {
+    private static final String INSERT_CHANGE_EVENT =
+            "INSERT INTO change_event(entity_type, entity_id, operation, changed_at) VALUES (?, ?, ?, ?)";
+    private static final String[] GENERATED_SEQ = {"seq"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeEventBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<ChangeEvent> insertAll(List<ChangeEvent> changeEvents) {
+        return jdbcTemplate.execute((ConnectionCallback<List<ChangeEvent>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_CHANGE_EVENT, GENERATED_SEQ)) {
+                for (ChangeEvent changeEvent : changeEvents) {
+                    statement.setString(1, changeEvent.getEntityType().name());
+                    statement.setInt(2, changeEvent.getEntityId());
+                    statement.setString(3, changeEvent.getOperation().name());
+                    statement.setTimestamp(4, Timestamp.from(changeEvent.getChangedAt()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    for (int index = 0; generatedKeys.next(); index++) {
+                        changeEvents.get(index).setSeq(generatedKeys.getLong(1));
+                    }
+                }
+            }
+            return changeEvents;
+        });
+    }
+}
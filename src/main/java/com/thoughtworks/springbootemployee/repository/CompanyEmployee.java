@@ -0,0 +1,15 @@
+package com.thoughtworks.springbootemployee.repository;
+
+public interface CompanyEmployee {
+    Integer getCompanyId();
+
+    Integer getId();
+
+    String getName();
+
+    Integer getAge();
+
+    String getGender();
+
+    Integer getSalary();
+}
@@ -0,0 +1,7 @@
+package com.thoughtworks.springbootemployee.repository;
+
+public interface CompanySummary extends CompanyVersion {
+    Integer getCompanyId();
+
+    String getCompanyName();
+}
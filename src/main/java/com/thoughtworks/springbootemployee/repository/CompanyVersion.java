@@ -0,0 +1,9 @@
+package com.thoughtworks.springbootemployee.repository;
+
+public interface CompanyVersion {
+    Integer getVersion();
+
+    Long getEmployeeCount();
+
+    Long getEmployeeVersionSum();
+}
@@ -0,0 +1,91 @@
+package com.thoughtworks.springbootemployee.repository;
+
+import com.thoughtworks.springbootemployee.model.Employee;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+public class EmployeeBatchRepository {
+    private static final String INSERT_EMPLOYEE =
+            "INSERT INTO employee(name, age, gender, salary) VALUES (?, ?, ?, ?)";
+    private static final String[] GENERATED_ID = {"id"};
+    private static final String UPDATE_EMPLOYEE = "UPDATE employee SET name = ?, age = ?, gender = ?, salary = ?, "
+            + "version = version + 1 WHERE id = ? AND version = COALESCE(?, version)";
+    private static final String SELECT_EMPLOYEES_BY_IDS =
+            "SELECT id, name, age, gender, salary, version FROM employee WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Integer> insertAll(List<Employee> employees, int batchSize) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Integer>>) connection -> {
+            List<Integer> ids = new ArrayList<>(employees.size());
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_EMPLOYEE, GENERATED_ID)) {
+                for (int start = 0; start < employees.size(); start += batchSize) {
+                    for (Employee employee : employees.subList(start, Math.min(start + batchSize, employees.size()))) {
+                        statement.setString(1, employee.getName());
+                        statement.setObject(2, employee.getAge(), Types.INTEGER);
+                        statement.setString(3, employee.getGender());
+                        statement.setObject(4, employee.getSalary(), Types.INTEGER);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                        while (generatedKeys.next()) {
+                            ids.add(generatedKeys.getInt(1));
+                        }
+                    }
+                }
+            }
+            return ids;
+        });
+    }
+
+    public int[] updateAll(List<Employee> employees) {
+        int[][] updateCounts = jdbcTemplate.batchUpdate(UPDATE_EMPLOYEE, employees, employees.size(),
+                (statement, employee) -> {
+                    statement.setString(1, employee.getName());
+                    statement.setObject(2, employee.getAge(), Types.INTEGER);
+                    statement.setString(3, employee.getGender());
+                    statement.setObject(4, employee.getSalary(), Types.INTEGER);
+                    statement.setInt(5, employee.getId());
+                    statement.setObject(6, employee.getVersion(), Types.INTEGER);
+                });
+        int[] counts = new int[employees.size()];
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                counts[index++] = count;
+            }
+        }
+        return counts;
+    }
+
+    public List<Employee> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query(String.format(SELECT_EMPLOYEES_BY_IDS, placeholders), ids.toArray(),
+                (resultSet, rowNumber) -> {
+                    Employee employee = new Employee(resultSet.getString("name"),
+                            resultSet.getObject("age", Integer.class), resultSet.getString("gender"),
+                            resultSet.getObject("salary", Integer.class));
+                    employee.setId(resultSet.getInt("id"));
+                    employee.setVersion(resultSet.getInt("version"));
+                    return employee;
+                });
+    }
+}
@@ -0,0 +1,114 @@
+package com.thoughtworks.springbootemployee.repository;
+
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.model.Employee;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+@Repository
+public class EmployeeFieldRepository {
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    public EmployeeFieldRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(Specification<Employee> specification, List<String> fields, Sort sort) {
+        return toRows(createQuery(specification, fields, sort).getResultList(), fields);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(Specification<Employee> specification, List<String> fields, Sort sort,
+                                             long offset, int limit) {
+        TypedQuery<Tuple> query = createQuery(specification, fields, sort);
+        query.setFirstResult(Math.toIntExact(offset));
+        query.setMaxResults(limit);
+        return toRows(query.getResultList(), fields);
+    }
+
+    @Transactional(readOnly = true)
+    public List<EmployeeResponse> findResponses(Specification<Employee> specification, Sort sort) {
+        return createResponseQuery(specification, sort).getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<EmployeeResponse> findResponses(Specification<Employee> specification, Sort sort, long offset,
+                                                int limit) {
+        TypedQuery<EmployeeResponse> query = createResponseQuery(specification, sort);
+        query.setFirstResult(Math.toIntExact(offset));
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    public Stream<Map<String, Object>> streamAll(List<String> fields) {
+        TypedQuery<Tuple> query = createQuery(null, fields, Sort.by("id"));
+        query.setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+        query.setHint(HINT_READONLY, true);
+        return query.getResultStream().map(tuple -> toRow(tuple, fields));
+    }
+
+    private TypedQuery<Tuple> createQuery(Specification<Employee> specification, List<String> fields, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Employee> root = query.from(Employee.class);
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        fields.forEach(field -> selections.add(root.get(field).alias(field)));
+        query.multiselect(selections);
+        return createQuery(query, root, criteriaBuilder, specification, sort);
+    }
+
+    private TypedQuery<EmployeeResponse> createResponseQuery(Specification<Employee> specification, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeResponse> query = criteriaBuilder.createQuery(EmployeeResponse.class);
+        Root<Employee> root = query.from(Employee.class);
+        query.select(criteriaBuilder.construct(EmployeeResponse.class, root.get("id"), root.get("name"),
+                root.get("age"), root.get("gender"), root.get("salary")));
+        return createQuery(query, root, criteriaBuilder, specification, sort);
+    }
+
+    private <T> TypedQuery<T> createQuery(CriteriaQuery<T> query, Root<Employee> root, CriteriaBuilder criteriaBuilder,
+                                          Specification<Employee> specification, Sort sort) {
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query);
+    }
+
+    private List<Map<String, Object>> toRows(List<Tuple> tuples, List<String> fields) {
+        return tuples.stream().map(tuple -> toRow(tuple, fields)).collect(Collectors.toList());
+    }
+
+    private Map<String, Object> toRow(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        fields.forEach(field -> row.put(field, tuple.get(field)));
+        return row;
+    }
+}
@@ -0,0 +1,7 @@
+package com.thoughtworks.springbootemployee.repository;
+
+public interface EmployeeName {
+    Integer getId();
+
+    String getName();
+}
@@ -0,0 +1,66 @@
+package com.thoughtworks.springbootemployee.repository;
+
+import com.thoughtworks.springbootemployee.dto.EmployeeFilter;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.model.Gender;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class EmployeeSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> matching(EmployeeFilter filter) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getCompanyId() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("companyId"), filter.getCompanyId()));
+            }
+            if (filter.getGender() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("gender"), Gender.normalize(filter.getGender())));
+            }
+            if (filter.getAgeMin() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("age"), filter.getAgeMin()));
+            }
+            if (filter.getAgeMax() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("age"), filter.getAgeMax()));
+            }
+            if (filter.getSalaryMin() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("salary"), filter.getSalaryMin()));
+            }
+            if (filter.getSalaryMax() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("salary"), filter.getSalaryMax()));
+            }
+            if (filter.getNamePrefix() != null && !filter.getNamePrefix().isEmpty()) {
+                predicates.add(criteriaBuilder.like(root.get("name"),
+                        escapeLike(filter.getNamePrefix()) + "%", LIKE_ESCAPE));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Employee> idIn(Collection<Integer> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Employee> idGreaterThan(Integer id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), id);
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char character : value.toCharArray()) {
+            if (character == '%' || character == '_' || character == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(character);
+        }
+        return escaped.toString();
+    }
+}
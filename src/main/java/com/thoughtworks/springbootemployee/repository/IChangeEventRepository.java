@@ -0,0 +1,28 @@
+package com.thoughtworks.springbootemployee.repository;
+
+import com.thoughtworks.springbootemployee.model.ChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+    @Transactional(readOnly = true)
+    List<ChangeEvent> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+
+    @Query("select max(c.seq) from ChangeEvent c")
+    Optional<Long> findMaxSeq();
+
+    @Transactional
+    @Modifying
+    @Query("delete from ChangeEvent c where c.changedAt < :cutoff")
+    int deleteByChangedAtBefore(@Param("cutoff") Instant cutoff);
+}
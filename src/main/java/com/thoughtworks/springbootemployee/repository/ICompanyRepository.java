@@ -1,9 +1,57 @@
 package com.thoughtworks.springbootemployee.repository;
 
 import com.thoughtworks.springbootemployee.model.Company;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ICompanyRepository extends JpaRepository<Company, Integer> {
+    String SELECT_COMPANY_SUMMARY = "select c.companyId as companyId, c.companyName as companyName, "
+            + "c.version as version, count(e) as employeeCount, sum(e.version) as employeeVersionSum "
+            + "from Company c left join c.employees e";
+    String GROUP_BY_COMPANY = " group by c.companyId, c.companyName, c.version";
+
+    @Query("select c from Company c left join fetch c.employees where c.companyId = :companyId")
+    Optional<Company> findWithEmployeesByCompanyId(@Param("companyId") Integer companyId);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_COMPANY_SUMMARY + GROUP_BY_COMPANY + " order by c.companyId")
+    List<CompanySummary> findAllSummaries();
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_COMPANY_SUMMARY + " where c.companyId = :companyId" + GROUP_BY_COMPANY)
+    Optional<CompanySummary> findSummaryByCompanyId(@Param("companyId") Integer companyId);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_COMPANY_SUMMARY + " where c.companyId in :companyIds" + GROUP_BY_COMPANY)
+    List<CompanySummary> findSummariesByCompanyIdIn(@Param("companyIds") Collection<Integer> companyIds);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_COMPANY_SUMMARY + GROUP_BY_COMPANY)
+    Slice<CompanySummary> findSummariesBy(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_COMPANY_SUMMARY + " where c.companyId > :companyId" + GROUP_BY_COMPANY)
+    Slice<CompanySummary> findSummariesByCompanyIdGreaterThan(@Param("companyId") Integer companyId, Pageable pageable);
+
+    @Query("select c.companyId from Company c where c.companyId in :companyIds")
+    List<Integer> findIdsByCompanyIdIn(@Param("companyIds") Collection<Integer> companyIds);
+
+    @Modifying
+    @Query("delete from Company c where c.companyId in :companyIds")
+    int deleteByCompanyIdIn(@Param("companyIds") Collection<Integer> companyIds);
+
+    @Query("select c.version as version, count(e) as employeeCount, sum(e.version) as employeeVersionSum "
+            + "from Company c left join c.employees e where c.companyId = :companyId group by c.companyId, c.version")
+    Optional<CompanyVersion> findVersionByCompanyId(@Param("companyId") Integer companyId);
 }
@@ -1,12 +1,109 @@
 package com.thoughtworks.springbootemployee.repository;
 
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
 import com.thoughtworks.springbootemployee.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface IEmployeeRepository extends JpaRepository<Employee, Integer> {
+public interface IEmployeeRepository extends JpaRepository<Employee, Integer>, JpaSpecificationExecutor<Employee> {
+    String SELECT_EMPLOYEE_RESPONSE = "select new com.thoughtworks.springbootemployee.dto.EmployeeResponse("
+            + "e.id, e.name, e.age, e.gender, e.salary) from Employee e";
+    String SALARY_STATISTICS_COLUMNS = "COUNT(*) AS \"employeeCount\", "
+            + "SUM(e.salary) AS \"totalSalary\", "
+            + "MIN(e.salary) AS \"minSalary\", "
+            + "MAX(e.salary) AS \"maxSalary\", "
+            + "AVG(CAST(e.salary AS DOUBLE)) AS \"averageSalary\", "
+            + "PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY e.salary) AS \"medianSalary\", "
+            + "PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY e.salary) AS \"p90Salary\", "
+            + "PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY e.salary) AS \"p99Salary\" ";
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Employee> findByGender(String gender);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_EMPLOYEE_RESPONSE)
+    List<EmployeeResponse> findAllResponses();
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_EMPLOYEE_RESPONSE + " where e.gender = :gender")
+    List<EmployeeResponse> findResponsesByGender(@Param("gender") String gender);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_EMPLOYEE_RESPONSE)
+    Slice<EmployeeResponse> findResponsesBy(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_EMPLOYEE_RESPONSE + " where e.id in :ids")
+    List<EmployeeResponse> findResponsesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select e.companyId as companyId, e.id as id, e.name as name, e.age as age, e.gender as gender, "
+            + "e.salary as salary from Employee e where e.companyId in :companyIds order by e.id")
+    List<CompanyEmployee> findCompanyEmployeesByCompanyIdIn(@Param("companyIds") Collection<Integer> companyIds);
+
+    @Query("select e.id from Employee e where e.id in :ids")
+    List<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("select e.id from Employee e where e.companyId in :companyIds")
+    List<Integer> findIdsByCompanyIdIn(@Param("companyIds") Collection<Integer> companyIds);
+
+    @Modifying
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("delete from Employee e where e.companyId in :companyIds")
+    int deleteByCompanyIdIn(@Param("companyIds") Collection<Integer> companyIds);
+
+    @Transactional(readOnly = true)
+    @Query("select e.id as id, e.name as name from Employee e where e.id > :id order by e.id")
+    List<EmployeeName> findNamesByIdGreaterThan(@Param("id") Integer id, Pageable pageable);
+
+    @Query("select e.version from Employee e where e.id = :id")
+    Optional<Integer> findVersionById(@Param("id") Integer id);
+
+    Slice<Employee> findByIdGreaterThan(Integer id, Pageable pageable);
+
+    List<Employee> findByCompanyIdOrderByIdAsc(Integer companyId);
+
+    Slice<Employee> findByCompanyId(Integer companyId, Pageable pageable);
+
+    Slice<Employee> findByCompanyIdAndIdGreaterThan(Integer companyId, Integer id, Pageable pageable);
+
+    @Query("select e from Employee e")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    Stream<Employee> streamAll();
+
+    @Query(value = "SELECT e.gender AS \"groupKey\", " + SALARY_STATISTICS_COLUMNS
+            + "FROM employee e GROUP BY e.gender ORDER BY e.gender", nativeQuery = true)
+    List<SalaryStatistics> findSalaryStatisticsByGender();
+
+    @Query(value = "SELECT CAST(e.company_id AS VARCHAR) AS \"groupKey\", " + SALARY_STATISTICS_COLUMNS
+            + "FROM employee e GROUP BY e.company_id ORDER BY e.company_id", nativeQuery = true)
+    List<SalaryStatistics> findSalaryStatisticsByCompany();
+
+    @Query(value = "SELECT e.gender AS \"groupKey\", " + SALARY_STATISTICS_COLUMNS
+            + "FROM employee e WHERE e.company_id = :companyId GROUP BY e.gender ORDER BY e.gender", nativeQuery = true)
+    List<SalaryStatistics> findSalaryStatisticsByCompanyIdGroupByGender(@Param("companyId") Integer companyId);
 }
@@ -0,0 +1,21 @@
+package com.thoughtworks.springbootemployee.repository;
+
+public interface SalaryStatistics {
+    String getGroupKey();
+
+    Long getEmployeeCount();
+
+    Long getTotalSalary();
+
+    Long getMinSalary();
+
+    Long getMaxSalary();
+
+    Double getAverageSalary();
+
+    Double getMedianSalary();
+
+    Double getP90Salary();
+
+    Double getP99Salary();
+}
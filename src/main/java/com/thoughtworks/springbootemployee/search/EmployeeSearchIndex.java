@@ -0,0 +1,243 @@
+package com.thoughtworks.springbootemployee.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+public class EmployeeSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int BUDGET_CHECK_INTERVAL = 256;
+    private static final String TOKEN_SEPARATOR = "[^\\p{L}\\p{N}]+";
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingInt((Match match) -> match.rank)
+            .thenComparingInt(match -> match.length)
+            .thenComparingInt(match -> match.id);
+
+    private final long timeBudgetNanos;
+    private final LongSupplier ticker;
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> grams = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Integer>> tokens = new ConcurrentSkipListMap<>();
+    private final Set<Integer> removedDuringScan = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger scansInProgress = new AtomicInteger();
+    private volatile boolean ready;
+
+    public EmployeeSearchIndex(long timeBudgetNanos) {
+        this(timeBudgetNanos, System::nanoTime);
+    }
+
+    public EmployeeSearchIndex(long timeBudgetNanos, LongSupplier ticker) {
+        this.timeBudgetNanos = timeBudgetNanos;
+        this.ticker = ticker;
+    }
+
+    public synchronized void index(Integer id, String name) {
+        if (id == null) {
+            return;
+        }
+        String normalizedName = normalize(name);
+        String previousName = normalizedName == null ? names.remove(id) : names.put(id, normalizedName);
+        if (previousName != null) {
+            unlink(id, previousName);
+        }
+        if (normalizedName != null) {
+            link(id, normalizedName);
+        }
+    }
+
+    public synchronized void remove(Integer id) {
+        String previousName = names.remove(id);
+        if (previousName != null) {
+            unlink(id, previousName);
+        }
+        if (scansInProgress.get() > 0) {
+            removedDuringScan.add(id);
+        }
+    }
+
+    public synchronized void indexIfAbsent(Map<Integer, String> scannedNames) {
+        scannedNames.forEach((id, name) -> {
+            String normalizedName = normalize(name);
+            if (normalizedName != null && !names.containsKey(id) && !removedDuringScan.contains(id)) {
+                names.put(id, normalizedName);
+                link(id, normalizedName);
+            }
+        });
+    }
+
+    public void beginScan() {
+        scansInProgress.incrementAndGet();
+    }
+
+    public synchronized void endScan(boolean completed) {
+        if (scansInProgress.decrementAndGet() == 0) {
+            removedDuringScan.clear();
+        }
+        if (completed) {
+            ready = true;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public List<Integer> search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery == null || limit < 1) {
+            return Collections.emptyList();
+        }
+        long deadline = ticker.getAsLong() + timeBudgetNanos;
+        List<Set<Integer>> sources = new ArrayList<>();
+        List<Set<Integer>> required = new ArrayList<>();
+        if (!collectPostings(normalizedQuery, sources, required)) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<Match> worstFirst = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        Set<Integer> seen = new HashSet<>();
+        int checked = 0;
+        for (Set<Integer> source : sources) {
+            for (Integer id : source) {
+                if (++checked % BUDGET_CHECK_INTERVAL == 0 && ticker.getAsLong() - deadline > 0) {
+                    return sorted(worstFirst);
+                }
+                if (!seen.add(id) || !containsAll(required, id)) {
+                    continue;
+                }
+                String name = names.get(id);
+                int rank = name == null ? -1 : rank(name, normalizedQuery);
+                if (rank < 0) {
+                    continue;
+                }
+                worstFirst.add(new Match(id, rank, name.length()));
+                if (worstFirst.size() > limit) {
+                    worstFirst.poll();
+                }
+            }
+        }
+        return sorted(worstFirst);
+    }
+
+    private boolean collectPostings(String query, List<Set<Integer>> sources, List<Set<Integer>> required) {
+        if (query.length() < GRAM_LENGTH) {
+            sources.addAll(tokens.subMap(query, true, query + Character.MAX_VALUE, false).values());
+            return true;
+        }
+        Set<Integer> smallest = null;
+        for (String gram : gramsOf(query)) {
+            Set<Integer> posting = grams.get(gram);
+            if (posting == null) {
+                return false;
+            }
+            required.add(posting);
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        sources.add(smallest);
+        return true;
+    }
+
+    private static boolean containsAll(List<Set<Integer>> postings, Integer id) {
+        for (Set<Integer> posting : postings) {
+            if (!posting.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Integer> sorted(PriorityQueue<Match> matches) {
+        List<Match> bestFirst = new ArrayList<>(matches);
+        bestFirst.sort(BEST_FIRST);
+        List<Integer> ids = new ArrayList<>(bestFirst.size());
+        bestFirst.forEach(match -> ids.add(match.id));
+        return ids;
+    }
+
+    private int rank(String name, String query) {
+        if (name.equals(query)) {
+            return 0;
+        }
+        if (name.startsWith(query)) {
+            return 1;
+        }
+        for (String token : name.split(TOKEN_SEPARATOR)) {
+            if (token.startsWith(query)) {
+                return 2;
+            }
+        }
+        return name.contains(query) ? 3 : -1;
+    }
+
+    private void link(Integer id, String name) {
+        gramsOf(name).forEach(gram -> grams.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id));
+        tokensOf(name).forEach(token -> tokens.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(id));
+    }
+
+    private void unlink(Integer id, String name) {
+        gramsOf(name).forEach(gram -> removePosting(grams, gram, id));
+        tokensOf(name).forEach(token -> removePosting(tokens, token, id));
+    }
+
+    private static void removePosting(Map<String, Set<Integer>> postings, String key, Integer id) {
+        Set<Integer> posting = postings.get(key);
+        if (posting != null) {
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> gramsOf(String value) {
+        Set<String> result = new HashSet<>();
+        for (int start = 0; start + GRAM_LENGTH <= value.length(); start++) {
+            result.add(value.substring(start, start + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+    private static Set<String> tokensOf(String value) {
+        Set<String> result = new HashSet<>();
+        for (String token : value.split(TOKEN_SEPARATOR)) {
+            if (!token.isEmpty()) {
+                result.add(token);
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static final class Match {
+        private final int id;
+        private final int rank;
+        private final int length;
+
+        private Match(int id, int rank, int length) {
+            this.id = id;
+            this.rank = rank;
+            this.length = length;
+        }
+    }
+}
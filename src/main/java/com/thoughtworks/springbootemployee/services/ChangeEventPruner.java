@@ -0,0 +1,56 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.repository.IChangeEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ChangeEventPruner implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeEventPruner.class);
+
+    private final IChangeEventRepository changeEventRepository;
+    private final Duration retention;
+    private final ScheduledExecutorService pruneExecutor;
+
+    public ChangeEventPruner(IChangeEventRepository changeEventRepository,
+                             @Value("${changes.retention:7d}") Duration retention,
+                             @Value("${changes.prune-interval:1h}") Duration pruneInterval) {
+        this.changeEventRepository = changeEventRepository;
+        this.retention = retention;
+        this.pruneExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-event-pruner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = pruneInterval.toNanos();
+        pruneExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                prune();
+            } catch (RuntimeException exception) {
+                LOGGER.warn("Failed to prune change events older than {}", retention, exception);
+            }
+        }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int prune() {
+        int deleted = changeEventRepository.deleteByChangedAtBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            LOGGER.info("Pruned {} change events older than {}", deleted, retention);
+        }
+        return deleted;
+    }
+
+    @Override
+    public void destroy() {
+        pruneExecutor.shutdownNow();
+    }
+}
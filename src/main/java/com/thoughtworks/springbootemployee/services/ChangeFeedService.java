@@ -0,0 +1,210 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.changes.ChangeRingBuffer;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeEvent;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import com.thoughtworks.springbootemployee.repository.ChangeEventBatchRepository;
+import com.thoughtworks.springbootemployee.repository.IChangeEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Service
+public class ChangeFeedService implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final IChangeEventRepository changeEventRepository;
+    private final ChangeEventBatchRepository changeEventBatchRepository;
+    private final ChangeRingBuffer ringBuffer;
+    private final int batchSize;
+    private final ExecutorService streamExecutor;
+    private final ExecutorService sendExecutor;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final NavigableSet<Long> uncommittedSeqs = new TreeSet<>();
+    private long lastAssignedSeq;
+
+    public ChangeFeedService(IChangeEventRepository changeEventRepository,
+                             ChangeEventBatchRepository changeEventBatchRepository, ChangeRingBuffer ringBuffer,
+                             @Value("${changes.batch-size:500}") int batchSize,
+                             @Value("${changes.stream-threads:4}") int streamThreads) {
+        this.changeEventRepository = changeEventRepository;
+        this.changeEventBatchRepository = changeEventBatchRepository;
+        this.ringBuffer = ringBuffer;
+        this.batchSize = batchSize;
+        this.streamExecutor = Executors.newFixedThreadPool(streamThreads, runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sendExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-send");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuffering() {
+        long maxSeq = changeEventRepository.findMaxSeq().orElse(0L);
+        synchronized (uncommittedSeqs) {
+            lastAssignedSeq = Math.max(lastAssignedSeq, maxSeq);
+        }
+        ringBuffer.coverAfter(maxSeq);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeEntityType entityType, ChangeOperation operation, Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Instant changedAt = Instant.now();
+        List<ChangeEvent> newEvents = ids.stream()
+                .map(id -> new ChangeEvent(entityType, id, operation, changedAt))
+                .collect(Collectors.toList());
+        List<ChangeEvent> events;
+        synchronized (uncommittedSeqs) {
+            events = changeEventBatchRepository.insertAll(newEvents);
+            events.forEach(event -> uncommittedSeqs.add(event.getSeq()));
+            lastAssignedSeq = Math.max(lastAssignedSeq, uncommittedSeqs.last());
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(events, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    public List<ChangeEvent> getChangesAfter(long seq, int limit) {
+        long visibleBefore = visibleBefore();
+        List<ChangeEvent> events = ringBuffer.after(seq, limit).orElseGet(() ->
+                changeEventRepository.findBySeqGreaterThanOrderBySeqAsc(seq, PageRequest.of(0, limit)));
+        int visible = 0;
+        while (visible < events.size() && events.get(visible).getSeq() < visibleBefore) {
+            visible++;
+        }
+        return visible == events.size() ? events : events.subList(0, visible);
+    }
+
+    public long getCurrentSeq() {
+        return visibleBefore() - 1;
+    }
+
+    public Subscription subscribe(long since, Consumer<List<ChangeEvent>> listener) {
+        Subscription subscription = new Subscription(since, listener);
+        subscriptions.add(subscription);
+        subscription.signal();
+        return subscription;
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.clear();
+        streamExecutor.shutdownNow();
+        sendExecutor.shutdownNow();
+    }
+
+    private long visibleBefore() {
+        synchronized (uncommittedSeqs) {
+            return uncommittedSeqs.isEmpty() ? lastAssignedSeq + 1 : uncommittedSeqs.first();
+        }
+    }
+
+    private void complete(List<ChangeEvent> events, boolean committed) {
+        if (committed) {
+            ringBuffer.append(events);
+        }
+        synchronized (uncommittedSeqs) {
+            events.forEach(event -> uncommittedSeqs.remove(event.getSeq()));
+        }
+        subscriptions.forEach(Subscription::signal);
+    }
+
+    public final class Subscription {
+        private final Consumer<List<ChangeEvent>> listener;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean pending;
+        private volatile boolean cancelled;
+        private volatile long lastSeq;
+
+        private Subscription(long since, Consumer<List<ChangeEvent>> listener) {
+            this.lastSeq = since;
+            this.listener = listener;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            pending = true;
+            if (!cancelled && draining.compareAndSet(false, true)) {
+                streamExecutor.execute(this::fetch);
+            }
+        }
+
+        private void fetch() {
+            List<ChangeEvent> events;
+            try {
+                pending = false;
+                events = cancelled ? Collections.emptyList() : getChangesAfter(lastSeq, batchSize);
+            } catch (RuntimeException exception) {
+                LOGGER.debug("Cancelled change feed subscription after event {}", lastSeq, exception);
+                cancel();
+                events = Collections.emptyList();
+            }
+            if (events.isEmpty()) {
+                finishPass();
+                return;
+            }
+            List<ChangeEvent> batch = events;
+            sendExecutor.execute(() -> send(batch));
+        }
+
+        private void send(List<ChangeEvent> events) {
+            try {
+                listener.accept(events);
+                lastSeq = events.get(events.size() - 1).getSeq();
+                if (events.size() == batchSize) {
+                    pending = true;
+                }
+            } catch (RuntimeException exception) {
+                LOGGER.debug("Cancelled change feed subscription after event {}", lastSeq, exception);
+                cancel();
+            }
+            finishPass();
+        }
+
+        private void finishPass() {
+            draining.set(false);
+            if (pending && !cancelled) {
+                signal();
+            }
+        }
+    }
+}
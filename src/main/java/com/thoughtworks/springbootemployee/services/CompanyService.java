@@ -1,72 +1,283 @@
 package com.thoughtworks.springbootemployee.services;
 
+import com.thoughtworks.springbootemployee.cache.LookupCache;
+import com.thoughtworks.springbootemployee.dto.BulkDeleteResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.exception.BadRequestException;
 import com.thoughtworks.springbootemployee.exception.NotFoundException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
 import com.thoughtworks.springbootemployee.model.Company;
 import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.CompanyEmployee;
+import com.thoughtworks.springbootemployee.repository.CompanySummary;
+import com.thoughtworks.springbootemployee.repository.CompanyVersion;
 import com.thoughtworks.springbootemployee.repository.ICompanyRepository;
 import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import com.thoughtworks.springbootemployee.repository.SalaryStatistics;
+import com.thoughtworks.springbootemployee.search.EmployeeSearchIndex;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CompanyService {
     private static final String COMPANY_ID_S_DOES_NOT_EXIST = "Company ID %s does not exist!";
+    private static final String COMPANY_ID_S_WAS_MODIFIED = "Company ID %s was modified!";
+    private static final String EMPLOYEE_ID_S_DOES_NOT_BELONG_TO_COMPANY = "Employee ID %s does not belong to this company!";
     private ICompanyRepository companyRepository;
     private IEmployeeRepository employeeRepository;
+    private LookupCache<Integer, Company> companyCache;
+    private LookupCache<Integer, Employee> employeeCache;
+    private EmployeeSearchIndex searchIndex;
+    private ChangeFeedService changeFeedService;
 
-    public CompanyService(ICompanyRepository companyRepository, IEmployeeRepository employeeRepository) {
+    public CompanyService(ICompanyRepository companyRepository, IEmployeeRepository employeeRepository,
+                          LookupCache<Integer, Company> companyCache, LookupCache<Integer, Employee> employeeCache,
+                          EmployeeSearchIndex searchIndex, ChangeFeedService changeFeedService) {
         this.companyRepository = companyRepository;
         this.employeeRepository = employeeRepository;
+        this.companyCache = companyCache;
+        this.employeeCache = employeeCache;
+        this.searchIndex = searchIndex;
+        this.changeFeedService = changeFeedService;
     }
 
-    public List<Company> getAll() {
-        return companyRepository.findAll();
+    public List<CompanySummary> getAll() {
+        return companyRepository.findAllSummaries();
     }
 
+    @Transactional
     public Company create(Company newCompany) {
-        return companyRepository.save(newCompany);
+        Company createdCompany = companyRepository.save(newCompany);
+        changeFeedService.record(ChangeEntityType.COMPANY, ChangeOperation.CREATE,
+                Collections.singletonList(createdCompany.getCompanyId()));
+        List<Employee> createdEmployees = createdCompany.getEmployees() == null
+                ? Collections.emptyList() : new ArrayList<>(createdCompany.getEmployees());
+        if (!createdEmployees.isEmpty()) {
+            changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.CREATE,
+                    createdEmployees.stream().map(Employee::getId).collect(Collectors.toList()));
+        }
+        AfterCommit.run(() -> {
+            companyCache.evict(createdCompany.getCompanyId());
+            createdEmployees.forEach(employee -> searchIndex.index(employee.getId(), employee.getName()));
+        });
+        return createdCompany;
     }
 
     public Company searchById(Integer id) {
-        return companyRepository.findById(id).orElseThrow(
-                () -> new NotFoundException(String.format(COMPANY_ID_S_DOES_NOT_EXIST, id)));
+        Company company = companyCache.get(id, key -> companyRepository.findWithEmployeesByCompanyId(key).orElse(null));
+        if (company == null) {
+            throw new NotFoundException(String.format(COMPANY_ID_S_DOES_NOT_EXIST, id));
+        }
+        return company;
+    }
+
+    public CompanySummary getSummary(Integer id) {
+        return companyRepository.findSummaryByCompanyId(id)
+                .orElseThrow(() -> new NotFoundException(String.format(COMPANY_ID_S_DOES_NOT_EXIST, id)));
+    }
+
+    public Map<Integer, List<EmployeeResponse>> getEmployeeResponsesByCompanyIds(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return IdChunks.chunk(ids).stream()
+                .flatMap(chunk -> employeeRepository.findCompanyEmployeesByCompanyIdIn(chunk).stream())
+                .collect(Collectors.groupingBy(CompanyEmployee::getCompanyId, Collectors.mapping(
+                        employee -> new EmployeeResponse(employee.getId(), employee.getName(), employee.getAge(),
+                                employee.getGender(), employee.getSalary()),
+                        Collectors.toList())));
     }
 
     public List<Employee> getEmployeesByCompanyId(Integer id) {
-        Optional<Company> optionalCompany = companyRepository.findById(id);
-        if (optionalCompany.isPresent()) {
-            return optionalCompany.get().getEmployees();
+        checkCompanyExists(id);
+        return employeeRepository.findByCompanyIdOrderByIdAsc(id);
+    }
+
+    public Slice<Employee> getEmployeesByCompanyIdAndPage(Integer id, int page, int pageSize) {
+        checkCompanyExists(id);
+        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("id"));
+        return employeeRepository.findByCompanyId(id, pageable);
+    }
+
+    public Slice<Employee> getEmployeesByCompanyIdAfter(Integer id, Integer afterId, int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be greater than 0!");
         }
-        throw new NotFoundException(String.format(COMPANY_ID_S_DOES_NOT_EXIST, id));
+        checkCompanyExists(id);
+        Pageable pageable = PageRequest.of(0, limit, Sort.by("id"));
+        return employeeRepository.findByCompanyIdAndIdGreaterThan(id, afterId, pageable);
+    }
+
+    public List<SalaryStatistics> getSalaryStatistics(Integer id) {
+        checkCompanyExists(id);
+        return employeeRepository.findSalaryStatisticsByCompanyIdGroupByGender(id);
     }
 
-    public Company update(Integer id, Company updatedCompany) {
-        Optional<Company> optionalCompany = companyRepository.findById(id);
-        if (optionalCompany.isPresent()) {
-            optionalCompany.get().setCompanyName(updatedCompany.getCompanyName());
-            List<Employee> updatedEmployees = updatedCompany.getEmployees();
-            updateEmployee(updatedEmployees);
-            return companyRepository.save(optionalCompany.get());
+    private void checkCompanyExists(Integer id) {
+        if (!companyRepository.existsById(id)) {
+            throw new NotFoundException(String.format(COMPANY_ID_S_DOES_NOT_EXIST, id));
         }
-        throw new NotFoundException(String.format(COMPANY_ID_S_DOES_NOT_EXIST, id));
     }
 
-    private void updateEmployee(List<Employee> updatedEmployees) {
-        if (updatedEmployees != null) {
-            updatedEmployees.forEach(employee -> employeeRepository.save(employee));
+    public CompanyVersion getVersion(Integer id) {
+        return companyRepository.findVersionByCompanyId(id)
+                .orElseThrow(() -> new NotFoundException(String.format(COMPANY_ID_S_DOES_NOT_EXIST, id)));
+    }
+
+    @Transactional
+    public CompanyUpdateResult update(Integer id, Company updatedCompany) {
+        return update(id, updatedCompany, null);
+    }
+
+    @Transactional
+    public CompanyUpdateResult update(Integer id, Company updatedCompany, Integer expectedVersion) {
+        Company company = companyRepository.findWithEmployeesByCompanyId(id)
+                .orElseThrow(() -> new NotFoundException(String.format(COMPANY_ID_S_DOES_NOT_EXIST, id)));
+        if (expectedVersion != null && !expectedVersion.equals(company.getVersion())) {
+            throw new PreconditionFailedException(String.format(COMPANY_ID_S_WAS_MODIFIED, id));
         }
+        boolean renamed = !Objects.equals(company.getCompanyName(), updatedCompany.getCompanyName());
+        company.setCompanyName(updatedCompany.getCompanyName());
+        CompanyUpdateResult result = updateEmployees(company, updatedCompany.getEmployees());
+        if (renamed || result.getChangedRows() > 0) {
+            changeFeedService.record(ChangeEntityType.COMPANY, ChangeOperation.UPDATE, Collections.singletonList(id));
+        }
+        AfterCommit.run(() -> companyCache.evict(id));
+        return result;
     }
 
+    private CompanyUpdateResult updateEmployees(Company company, List<Employee> updatedEmployees) {
+        if (updatedEmployees == null) {
+            return new CompanyUpdateResult(company, 0, 0, 0);
+        }
+        if (company.getEmployees() == null) {
+            company.setEmployees(new ArrayList<>());
+        }
+        Map<Integer, Employee> currentEmployees = company.getEmployees().stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        List<Employee> insertedEmployees = new ArrayList<>();
+        List<Integer> updatedIds = new ArrayList<>();
+        List<Employee> reindexedEmployees = new ArrayList<>();
+        for (Employee updatedEmployee : updatedEmployees) {
+            if (updatedEmployee.getId() == null) {
+                insertedEmployees.add(updatedEmployee);
+                continue;
+            }
+            Employee currentEmployee = currentEmployees.remove(updatedEmployee.getId());
+            if (currentEmployee == null) {
+                throw new BadRequestException(String.format(EMPLOYEE_ID_S_DOES_NOT_BELONG_TO_COMPANY,
+                        updatedEmployee.getId()));
+            }
+            if (copyChangedFields(updatedEmployee, currentEmployee)) {
+                reindexedEmployees.add(currentEmployee);
+                updatedIds.add(currentEmployee.getId());
+            }
+        }
+        company.getEmployees().removeAll(currentEmployees.values());
+        company.getEmployees().addAll(insertedEmployees);
+        if (!insertedEmployees.isEmpty()) {
+            employeeRepository.flush();
+        }
+        List<Integer> removedIds = new ArrayList<>(currentEmployees.keySet());
+        reindexedEmployees.addAll(insertedEmployees);
+        AfterCommit.run(() -> {
+            updatedIds.forEach(employeeCache::evict);
+            removedIds.forEach(employeeCache::evict);
+            removedIds.forEach(searchIndex::remove);
+            reindexedEmployees.forEach(employee -> searchIndex.index(employee.getId(), employee.getName()));
+        });
+        changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.CREATE,
+                insertedEmployees.stream().map(Employee::getId).collect(Collectors.toList()));
+        changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.UPDATE, updatedIds);
+        changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.DELETE, removedIds);
+        return new CompanyUpdateResult(company, insertedEmployees.size(), updatedIds.size(), currentEmployees.size());
+    }
+
+    private boolean copyChangedFields(Employee source, Employee target) {
+        if (Objects.equals(source.getName(), target.getName())
+                && Objects.equals(source.getAge(), target.getAge())
+                && Objects.equals(source.getGender(), target.getGender())
+                && Objects.equals(source.getSalary(), target.getSalary())) {
+            return false;
+        }
+        target.setName(source.getName());
+        target.setAge(source.getAge());
+        target.setGender(source.getGender());
+        target.setSalary(source.getSalary());
+        return true;
+    }
+
+    @Transactional
     public void delete(Integer id) {
+        List<Integer> employeeIds = employeeRepository.findIdsByCompanyIdIn(Collections.singletonList(id));
         companyRepository.deleteById(id);
+        changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.DELETE, employeeIds);
+        changeFeedService.record(ChangeEntityType.COMPANY, ChangeOperation.DELETE, Collections.singletonList(id));
+        AfterCommit.run(() -> {
+            employeeIds.forEach(searchIndex::remove);
+            companyCache.evict(id);
+            employeeCache.evictAll();
+        });
+    }
+
+    public List<CompanySummary> searchByIds(List<Integer> ids) {
+        List<Integer> distinctIds = IdChunks.distinct(ids);
+        Map<Integer, CompanySummary> companies = IdChunks.chunk(distinctIds).stream()
+                .flatMap(chunk -> companyRepository.findSummariesByCompanyIdIn(chunk).stream())
+                .collect(Collectors.toMap(CompanySummary::getCompanyId, Function.identity()));
+        return distinctIds.stream().map(companies::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
-    public List<Company> getCompaniesByPageAndPageSize(int page, int pageSize) {
-        Pageable pageable = PageRequest.of(page - 1, pageSize);
-        return companyRepository.findAll(pageable).toList();
+    @Transactional
+    public BulkDeleteResponse deleteAll(List<Integer> ids) {
+        List<Integer> distinctIds = IdChunks.distinct(ids);
+        List<Integer> deletedEmployeeIds = new ArrayList<>();
+        int deleted = 0;
+        for (List<Integer> chunk : IdChunks.chunk(distinctIds)) {
+            List<Integer> employeeIds = employeeRepository.findIdsByCompanyIdIn(chunk);
+            deletedEmployeeIds.addAll(employeeIds);
+            changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.DELETE, employeeIds);
+            changeFeedService.record(ChangeEntityType.COMPANY, ChangeOperation.DELETE,
+                    companyRepository.findIdsByCompanyIdIn(chunk));
+            employeeRepository.deleteByCompanyIdIn(chunk);
+            deleted += companyRepository.deleteByCompanyIdIn(chunk);
+        }
+        AfterCommit.run(() -> {
+            deletedEmployeeIds.forEach(searchIndex::remove);
+            distinctIds.forEach(companyCache::evict);
+            employeeCache.evictAll();
+        });
+        return new BulkDeleteResponse(distinctIds.size(), deleted);
+    }
+
+    public List<CompanySummary> getCompaniesByPageAndPageSize(int page, int pageSize) {
+        return getCompanySliceByPageAndPageSize(page, pageSize).getContent();
+    }
+
+    public Slice<CompanySummary> getCompanySliceByPageAndPageSize(int page, int pageSize) {
+        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("companyId"));
+        return companyRepository.findSummariesBy(pageable);
+    }
+
+    public Slice<CompanySummary> getCompaniesAfter(Integer afterId, int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be greater than 0!");
+        }
+        Pageable pageable = PageRequest.of(0, limit, Sort.by("companyId"));
+        return companyRepository.findSummariesByCompanyIdGreaterThan(afterId, pageable);
     }
 }
@@ -0,0 +1,37 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.model.Company;
+
+public class CompanyUpdateResult {
+    private final Company company;
+    private final int inserted;
+    private final int updated;
+    private final int deleted;
+
+    public CompanyUpdateResult(Company company, int inserted, int updated, int deleted) {
+        this.company = company;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+    }
+
+    public Company getCompany() {
+        return company;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public int getChangedRows() {
+        return inserted + updated + deleted;
+    }
+}
@@ -0,0 +1,43 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeeFieldRepository;
+import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class EmployeeExportService {
+    private final IEmployeeRepository employeeRepository;
+    private final EmployeeFieldRepository fieldRepository;
+    private final EntityManager entityManager;
+
+    public EmployeeExportService(IEmployeeRepository employeeRepository, EmployeeFieldRepository fieldRepository,
+                                 EntityManager entityManager) {
+        this.employeeRepository = employeeRepository;
+        this.fieldRepository = fieldRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachEmployee(Consumer<Employee> consumer) {
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            employees.forEach(employee -> {
+                consumer.accept(employee);
+                entityManager.detach(employee);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachRow(String fields, Consumer<Map<String, Object>> consumer) {
+        try (Stream<Map<String, Object>> rows = fieldRepository.streamAll(EmployeeFields.parse(fields))) {
+            rows.forEach(consumer);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+final class EmployeeFields {
+    static final List<String> ALL = Collections.unmodifiableList(Arrays.asList("id", "name", "age", "gender", "salary"));
+    static final String ID = "id";
+
+    private EmployeeFields() {
+    }
+
+    static List<String> parse(String fields) {
+        Set<String> selectedFields = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (!ALL.contains(trimmed)) {
+                throw new BadRequestException(String.format("Employees have no field %s!", trimmed));
+            }
+            selectedFields.add(trimmed);
+        }
+        return new ArrayList<>(selectedFields);
+    }
+
+    static List<String> withId(List<String> fields) {
+        if (fields.contains(ID)) {
+            return fields;
+        }
+        List<String> fieldsWithId = new ArrayList<>(fields.size() + 1);
+        fieldsWithId.add(ID);
+        fieldsWithId.addAll(fields);
+        return fieldsWithId;
+    }
+
+    static List<Map<String, Object>> inIdOrder(List<Integer> ids, List<Map<String, Object>> rows, List<String> fields) {
+        Map<Object, Map<String, Object>> rowsById = rows.stream()
+                .collect(Collectors.toMap(row -> row.get(ID), Function.identity()));
+        List<Map<String, Object>> orderedRows = new ArrayList<>(rowsById.size());
+        for (Integer id : ids) {
+            Map<String, Object> row = rowsById.get(id);
+            if (row != null) {
+                if (!fields.contains(ID)) {
+                    row.remove(ID);
+                }
+                orderedRows.add(row);
+            }
+        }
+        return orderedRows;
+    }
+}
@@ -0,0 +1,95 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.cache.EntityCacheEvictor;
+import com.thoughtworks.springbootemployee.dto.BulkImportResponse;
+import com.thoughtworks.springbootemployee.dto.ImportChunkResponse;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeeBatchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+@Service
+public class EmployeeImportService {
+    private final EmployeeBatchRepository employeeBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int batchSize;
+    private final EmployeeSearchService employeeSearchService;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final ChangeFeedService changeFeedService;
+
+    public EmployeeImportService(EmployeeBatchRepository employeeBatchRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${employee.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${employee.import.batch-size:500}") int batchSize,
+                                 EmployeeSearchService employeeSearchService,
+                                 EntityCacheEvictor entityCacheEvictor,
+                                 ChangeFeedService changeFeedService) {
+        this.employeeBatchRepository = employeeBatchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.employeeSearchService = employeeSearchService;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.changeFeedService = changeFeedService;
+    }
+
+    public BulkImportResponse importEmployees(Iterator<Employee> employees) {
+        List<ImportChunkResponse> chunks = new ArrayList<>();
+        int inserted = 0;
+        int failed = 0;
+        while (true) {
+            List<Employee> chunk = new ArrayList<>(chunkSize);
+            String readError = readChunk(employees, chunk);
+            if (chunk.isEmpty() && readError == null) {
+                break;
+            }
+            ImportChunkResponse chunkResponse = readError == null
+                    ? insertChunk(chunks.size(), chunk)
+                    : new ImportChunkResponse(chunks.size(), chunk.size(), 0, readError);
+            chunks.add(chunkResponse);
+            inserted += chunkResponse.getInserted();
+            failed += chunkResponse.getError() == null ? 0 : chunkResponse.getSize();
+            if (readError != null) {
+                break;
+            }
+        }
+        if (inserted > 0) {
+            entityCacheEvictor.evictEmployeeQueries();
+            employeeSearchService.scanAsync();
+        }
+        return new BulkImportResponse(inserted, failed, chunks);
+    }
+
+    private String readChunk(Iterator<Employee> employees, List<Employee> chunk) {
+        try {
+            while (chunk.size() < chunkSize && employees.hasNext()) {
+                chunk.add(employees.next());
+            }
+            return null;
+        } catch (RuntimeException exception) {
+            return exception.getMessage();
+        }
+    }
+
+    private ImportChunkResponse insertChunk(int index, List<Employee> chunk) {
+        try {
+            Integer inserted = transactionTemplate.execute(status -> {
+                List<Integer> ids = employeeBatchRepository.insertAll(chunk, batchSize);
+                changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.CREATE, ids);
+                return ids.size();
+            });
+            return new ImportChunkResponse(index, chunk.size(), inserted, null);
+        } catch (DataAccessException exception) {
+            return new ImportChunkResponse(index, chunk.size(), 0, exception.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.dto.EmployeeFilter;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.exception.BadRequestException;
+import com.thoughtworks.springbootemployee.repository.EmployeeFieldRepository;
+import com.thoughtworks.springbootemployee.repository.EmployeeName;
+import com.thoughtworks.springbootemployee.repository.EmployeeSpecifications;
+import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import com.thoughtworks.springbootemployee.search.EmployeeSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class EmployeeSearchService implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeSearchService.class);
+
+    private final IEmployeeRepository employeeRepository;
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeFieldRepository fieldRepository;
+    private final int maxResults;
+    private final int scanBatchSize;
+    private final boolean rebuildOnStartup;
+    private final ExecutorService scanExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-search-scan");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Integer lastScannedId = 0;
+
+    public EmployeeSearchService(IEmployeeRepository employeeRepository, EmployeeSearchIndex searchIndex,
+                                 EmployeeFieldRepository fieldRepository,
+                                 @Value("${employee.search.max-results:20}") int maxResults,
+                                 @Value("${employee.search.scan-batch-size:1000}") int scanBatchSize,
+                                 @Value("${employee.search.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.employeeRepository = employeeRepository;
+        this.searchIndex = searchIndex;
+        this.fieldRepository = fieldRepository;
+        this.maxResults = maxResults;
+        this.scanBatchSize = scanBatchSize;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    public List<EmployeeResponse> search(String query, Integer limit) {
+        int resultLimit = toResultLimit(query, limit);
+        if (!searchIndex.isReady()) {
+            return searchByNamePrefix(query.trim(), resultLimit);
+        }
+        List<Integer> ids = searchIndex.search(query, resultLimit);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, EmployeeResponse> responses = employeeRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(EmployeeResponse::getId, Function.identity()));
+        List<EmployeeResponse> rankedResponses = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            EmployeeResponse response = responses.get(id);
+            if (response == null) {
+                searchIndex.remove(id);
+            } else {
+                rankedResponses.add(response);
+            }
+        }
+        return rankedResponses;
+    }
+
+    public List<Map<String, Object>> searchFields(String query, Integer limit, String fields) {
+        int resultLimit = toResultLimit(query, limit);
+        List<String> selectedFields = EmployeeFields.parse(fields);
+        if (!searchIndex.isReady()) {
+            EmployeeFilter filter = new EmployeeFilter();
+            filter.setNamePrefix(query.trim());
+            return fieldRepository.findAll(EmployeeSpecifications.matching(filter), selectedFields,
+                    Sort.by("name", "id"), 0, resultLimit);
+        }
+        List<Integer> ids = searchIndex.search(query, resultLimit);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Map<String, Object>> rows = fieldRepository.findAll(EmployeeSpecifications.idIn(ids),
+                EmployeeFields.withId(selectedFields), Sort.unsorted());
+        Set<Object> foundIds = rows.stream().map(row -> row.get(EmployeeFields.ID)).collect(Collectors.toSet());
+        ids.stream().filter(id -> !foundIds.contains(id)).forEach(searchIndex::remove);
+        return EmployeeFields.inIdOrder(ids, rows, selectedFields);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            scanAsync();
+        }
+    }
+
+    public Future<?> scanAsync() {
+        return scanExecutor.submit(this::scan);
+    }
+
+    private void scan() {
+        searchIndex.beginScan();
+        boolean completed = false;
+        try {
+            long startTime = System.nanoTime();
+            List<EmployeeName> batch;
+            do {
+                batch = employeeRepository.findNamesByIdGreaterThan(lastScannedId, PageRequest.of(0, scanBatchSize));
+                Map<Integer, String> names = new LinkedHashMap<>();
+                batch.forEach(employee -> names.put(employee.getId(), employee.getName()));
+                searchIndex.indexIfAbsent(names);
+                if (!batch.isEmpty()) {
+                    lastScannedId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == scanBatchSize);
+            completed = true;
+            LOGGER.info("Employee search index holds {} names after scanning up to ID {} in {} ms",
+                    searchIndex.size(), lastScannedId, (System.nanoTime() - startTime) / 1_000_000);
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Employee search index scan failed after ID {}", lastScannedId, exception);
+        } finally {
+            searchIndex.endScan(completed);
+        }
+    }
+
+    private int toResultLimit(String query, Integer limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new BadRequestException("Search query must not be blank!");
+        }
+        if (limit != null && limit < 1) {
+            throw new BadRequestException("Limit must be greater than 0!");
+        }
+        return limit == null ? maxResults : Math.min(limit, maxResults);
+    }
+
+    private List<EmployeeResponse> searchByNamePrefix(String prefix, int limit) {
+        EmployeeFilter filter = new EmployeeFilter();
+        filter.setNamePrefix(prefix);
+        return employeeRepository.findAll(EmployeeSpecifications.matching(filter),
+                PageRequest.of(0, limit, Sort.by("name", "id"))).stream()
+                .map(employee -> new EmployeeResponse(employee.getId(), employee.getName(), employee.getAge(),
+                        employee.getGender(), employee.getSalary()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void destroy() {
+        scanExecutor.shutdownNow();
+    }
+}
@@ -1,65 +1,297 @@
 package com.thoughtworks.springbootemployee.services;
 
+import com.thoughtworks.springbootemployee.cache.EntityCacheEvictor;
+import com.thoughtworks.springbootemployee.cache.LookupCache;
+import com.thoughtworks.springbootemployee.dto.BulkDeleteResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeFilter;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.exception.BadRequestException;
 import com.thoughtworks.springbootemployee.exception.NotFoundException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import com.thoughtworks.springbootemployee.model.Company;
 import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.model.Gender;
+import com.thoughtworks.springbootemployee.repository.EmployeeFieldRepository;
+import com.thoughtworks.springbootemployee.repository.EmployeeSpecifications;
 import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import com.thoughtworks.springbootemployee.repository.SalaryStatistics;
+import com.thoughtworks.springbootemployee.search.EmployeeSearchIndex;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.singletonList;
 
 @Service
 public class EmployeeService {
+    private static final Set<String> SORTABLE_FIELDS = new HashSet<>(Arrays.asList("id", "name", "age", "gender", "salary"));
 
     private IEmployeeRepository employeeRepository;
+    private LookupCache<Integer, Employee> employeeCache;
+    private LookupCache<Integer, Company> companyCache;
+    private EmployeeSearchIndex searchIndex;
+    private EmployeeFieldRepository fieldRepository;
+    private EntityCacheEvictor entityCacheEvictor;
+    private ChangeFeedService changeFeedService;
 
-    public EmployeeService(IEmployeeRepository employeeRepository) {
+    public EmployeeService(IEmployeeRepository employeeRepository, LookupCache<Integer, Employee> employeeCache,
+                           LookupCache<Integer, Company> companyCache, EmployeeSearchIndex searchIndex,
+                           EmployeeFieldRepository fieldRepository, EntityCacheEvictor entityCacheEvictor,
+                           ChangeFeedService changeFeedService) {
         this.employeeRepository = employeeRepository;
+        this.employeeCache = employeeCache;
+        this.companyCache = companyCache;
+        this.searchIndex = searchIndex;
+        this.fieldRepository = fieldRepository;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.changeFeedService = changeFeedService;
     }
 
     public List<Employee> getAll() {
         return employeeRepository.findAll();
     }
 
+    public List<EmployeeResponse> getAllResponses() {
+        return employeeRepository.findAllResponses();
+    }
+
+    @Transactional
     public Employee create(Employee newEmployee) {
-        return employeeRepository.save(newEmployee);
+        Employee createdEmployee = employeeRepository.save(newEmployee);
+        changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.CREATE,
+                singletonList(createdEmployee.getId()));
+        AfterCommit.run(() -> {
+            employeeCache.evict(createdEmployee.getId());
+            searchIndex.index(createdEmployee.getId(), createdEmployee.getName());
+        });
+        return createdEmployee;
     }
 
     public Employee searchById(Integer id) {
-        return employeeRepository.findById(id).orElseThrow(
-                () -> new NotFoundException("Employee ID not Found!"));
+        Employee employee = employeeCache.get(id, key -> employeeRepository.findById(key).orElse(null));
+        if (employee == null) {
+            throw new NotFoundException("Employee ID not Found!");
+        }
+        return employee;
+    }
+
+    public Map<String, Object> searchFieldsById(Integer id, String fields) {
+        List<Map<String, Object>> rows = fieldRepository.findAll(EmployeeSpecifications.idIn(singletonList(id)),
+                EmployeeFields.parse(fields), Sort.unsorted());
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Employee ID not Found!");
+        }
+        return rows.get(0);
     }
 
+    public Integer getVersion(Integer id) {
+        return employeeRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("Employee ID not Found!"));
+    }
+
+    @Transactional
     public Employee update(Integer id, Employee employee) {
+        return update(id, employee, null);
+    }
+
+    @Transactional
+    public Employee update(Integer id, Employee employee, Integer expectedVersion) {
         Optional<Employee> optionalEmployee = employeeRepository.findById(id);
 
         if (optionalEmployee.isPresent()) {
+            if (expectedVersion != null && !expectedVersion.equals(optionalEmployee.get().getVersion())) {
+                throw new PreconditionFailedException(String.format("Employee with an ID of %s was modified!", id));
+            }
             optionalEmployee.get().setSalary(employee.getSalary());
             optionalEmployee.get().setAge(employee.getAge());
             optionalEmployee.get().setGender(employee.getGender());
             optionalEmployee.get().setName(employee.getName());
 
-            return employeeRepository.save(optionalEmployee.get());
+            Employee updatedEmployee = employeeRepository.save(optionalEmployee.get());
+            changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.UPDATE, singletonList(id));
+            String name = updatedEmployee.getName();
+            AfterCommit.run(() -> {
+                employeeCache.evict(id);
+                companyCache.evictAll();
+                searchIndex.index(id, name);
+            });
+            return updatedEmployee;
         }
         throw new NotFoundException(String.format("Employee with an ID of %s not Found!", id));
     }
 
+    @Transactional
     public void delete(Integer id) {
         employeeRepository.deleteById(id);
+        changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.DELETE, singletonList(id));
+        AfterCommit.run(() -> {
+            employeeCache.evict(id);
+            companyCache.evictAll();
+            entityCacheEvictor.evictCompanyEmployees();
+            searchIndex.remove(id);
+        });
+    }
+
+    public List<EmployeeResponse> searchResponsesByIds(List<Integer> ids) {
+        List<Integer> distinctIds = IdChunks.distinct(ids);
+        Map<Integer, EmployeeResponse> responses = IdChunks.chunk(distinctIds).stream()
+                .flatMap(chunk -> employeeRepository.findResponsesByIdIn(chunk).stream())
+                .collect(Collectors.toMap(EmployeeResponse::getId, Function.identity()));
+        return distinctIds.stream().map(responses::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    public List<Map<String, Object>> searchFieldsByIds(List<Integer> ids, String fields) {
+        List<String> selectedFields = EmployeeFields.parse(fields);
+        List<Integer> distinctIds = IdChunks.distinct(ids);
+        List<Map<String, Object>> rows = IdChunks.chunk(distinctIds).stream()
+                .flatMap(chunk -> fieldRepository.findAll(EmployeeSpecifications.idIn(chunk),
+                        EmployeeFields.withId(selectedFields), Sort.unsorted()).stream())
+                .collect(Collectors.toList());
+        return EmployeeFields.inIdOrder(distinctIds, rows, selectedFields);
+    }
+
+    @Transactional
+    public BulkDeleteResponse deleteAll(List<Integer> ids) {
+        List<Integer> distinctIds = IdChunks.distinct(ids);
+        int deleted = 0;
+        for (List<Integer> chunk : IdChunks.chunk(distinctIds)) {
+            changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.DELETE,
+                    employeeRepository.findIdsByIdIn(chunk));
+            deleted += employeeRepository.deleteByIdIn(chunk);
+        }
+        AfterCommit.run(() -> {
+            distinctIds.forEach(employeeCache::evict);
+            distinctIds.forEach(searchIndex::remove);
+            companyCache.evictAll();
+        });
+        return new BulkDeleteResponse(distinctIds.size(), deleted);
     }
 
     public List<Employee> searchByGender(String gender) {
         try {
-            return employeeRepository.findByGender(gender);
+            return employeeRepository.findByGender(Gender.normalize(gender));
         } catch (NotFoundException exception) {
             throw new NotFoundException("None of the employees are " + gender);
         }
     }
 
+    public List<EmployeeResponse> searchResponsesByGender(String gender) {
+        return employeeRepository.findResponsesByGender(Gender.normalize(gender));
+    }
+
+    public List<EmployeeResponse> searchResponses(EmployeeFilter filter) {
+        if (filter.isEmpty()) {
+            return getAllResponses();
+        }
+        if (!filter.hasCriteria() && filter.getSort() == null) {
+            return searchResponsesByGender(filter.getGender());
+        }
+        return fieldRepository.findResponses(EmployeeSpecifications.matching(filter), toSort(filter.getSort()));
+    }
+
+    public List<Map<String, Object>> searchFields(EmployeeFilter filter, String fields) {
+        return fieldRepository.findAll(EmployeeSpecifications.matching(filter), EmployeeFields.parse(fields),
+                toSort(filter.getSort()));
+    }
+
+    public List<SalaryStatistics> getSalaryStatistics(String groupBy) {
+        if ("gender".equals(groupBy)) {
+            return employeeRepository.findSalaryStatisticsByGender();
+        }
+        if ("company".equals(groupBy)) {
+            return employeeRepository.findSalaryStatisticsByCompany();
+        }
+        throw new BadRequestException(String.format("Statistics cannot be grouped by %s!", groupBy));
+    }
+
     public List<Employee> getEmployeeByPageAndPageSize(int page, int pageSize) {
         Pageable pageable = PageRequest.of(page - 1, pageSize);
         return employeeRepository.findAll(pageable).toList();
     }
+
+    public List<EmployeeResponse> getEmployeeResponsesByPageAndPageSize(int page, int pageSize) {
+        return getEmployeeSliceByPageAndPageSize(page, pageSize).getContent();
+    }
+
+    public List<EmployeeResponse> getEmployeeResponsesByPageAndPageSize(int page, int pageSize, EmployeeFilter filter) {
+        if (filter.isEmpty()) {
+            return getEmployeeResponsesByPageAndPageSize(page, pageSize);
+        }
+        Pageable pageable = PageRequest.of(page - 1, pageSize, toSort(filter.getSort()));
+        return fieldRepository.findResponses(EmployeeSpecifications.matching(filter), pageable.getSort(),
+                pageable.getOffset(), pageable.getPageSize());
+    }
+
+    public List<Map<String, Object>> getEmployeeFieldsByPageAndPageSize(int page, int pageSize, EmployeeFilter filter,
+                                                                       String fields) {
+        Pageable pageable = PageRequest.of(page - 1, pageSize, toSort(filter.getSort()));
+        return fieldRepository.findAll(EmployeeSpecifications.matching(filter), EmployeeFields.parse(fields),
+                pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+    }
+
+    public Slice<EmployeeResponse> getEmployeeSliceByPageAndPageSize(int page, int pageSize) {
+        Pageable pageable = PageRequest.of(page - 1, pageSize);
+        return employeeRepository.findResponsesBy(pageable);
+    }
+
+    public Slice<Employee> getEmployeesAfter(Integer afterId, int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be greater than 0!");
+        }
+        Pageable pageable = PageRequest.of(0, limit, Sort.by("id"));
+        return employeeRepository.findByIdGreaterThan(afterId, pageable);
+    }
+
+    public Slice<Map<String, Object>> getEmployeeFieldSliceByPageAndPageSize(int page, int pageSize, String fields) {
+        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("id"));
+        return toSlice(fieldRepository.findAll(null, EmployeeFields.parse(fields), pageable.getSort(),
+                pageable.getOffset(), pageable.getPageSize() + 1), pageable);
+    }
+
+    public Slice<Map<String, Object>> getEmployeeFieldsAfter(Integer afterId, int limit, String fields) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be greater than 0!");
+        }
+        Pageable pageable = PageRequest.of(0, limit, Sort.by("id"));
+        return toSlice(fieldRepository.findAll(EmployeeSpecifications.idGreaterThan(afterId),
+                EmployeeFields.withId(EmployeeFields.parse(fields)), pageable.getSort(), 0, limit + 1), pageable);
+    }
+
+    private Sort toSort(String sort) {
+        if (sort == null || sort.trim().isEmpty()) {
+            return Sort.by("id");
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_FIELDS.contains(property) || parts.length > 2) {
+            throw new BadRequestException(String.format("Employees cannot be sorted by %s!", sort));
+        }
+        Sort.Direction direction = parts.length == 2
+                ? Sort.Direction.fromOptionalString(parts[1].trim()).orElseThrow(
+                        () -> new BadRequestException(String.format("Employees cannot be sorted by %s!", sort)))
+                : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, property);
+        return "id".equals(property) ? order : order.and(Sort.by("id"));
+    }
+
+    private Slice<Map<String, Object>> toSlice(List<Map<String, Object>> rows, Pageable pageable) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
 }
@@ -0,0 +1,239 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.cache.EntityCacheEvictor;
+import com.thoughtworks.springbootemployee.cache.LookupCache;
+import com.thoughtworks.springbootemployee.exception.NotFoundException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeeBatchRepository;
+import com.thoughtworks.springbootemployee.search.EmployeeSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class EmployeeUpdateCoalescer implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeUpdateCoalescer.class);
+    private static final String EMPLOYEE_NOT_FOUND = "Employee with an ID of %s not Found!";
+    private static final String EMPLOYEE_WAS_MODIFIED = "Employee with an ID of %s was modified!";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final EmployeeBatchRepository employeeBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LookupCache<Integer, Employee> employeeCache;
+    private final LookupCache<Integer, Company> companyCache;
+    private final EmployeeSearchIndex searchIndex;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final ChangeFeedService changeFeedService;
+    private final boolean enabled;
+    private final int flushSize;
+    private final ScheduledExecutorService flushExecutor;
+    private Map<Integer, PendingUpdate> pendingUpdates = new LinkedHashMap<>();
+
+    public EmployeeUpdateCoalescer(EmployeeBatchRepository employeeBatchRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   LookupCache<Integer, Employee> employeeCache,
+                                   LookupCache<Integer, Company> companyCache,
+                                   EmployeeSearchIndex searchIndex,
+                                   EntityCacheEvictor entityCacheEvictor,
+                                   ChangeFeedService changeFeedService,
+                                   @Value("${employee.write-behind.enabled:false}") boolean enabled,
+                                   @Value("${employee.write-behind.flush-size:500}") int flushSize,
+                                   @Value("${employee.write-behind.flush-interval:20ms}") Duration flushInterval) {
+        this.employeeBatchRepository = employeeBatchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.employeeCache = employeeCache;
+        this.companyCache = companyCache;
+        this.searchIndex = searchIndex;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.changeFeedService = changeFeedService;
+        this.enabled = enabled;
+        this.flushSize = flushSize;
+        this.flushExecutor = enabled ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        if (enabled) {
+            long intervalNanos = flushInterval.toNanos();
+            flushExecutor.scheduleWithFixedDelay(this::flush, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<Employee> submit(Integer id, Employee employee, Integer expectedVersion) {
+        CompletableFuture<Employee> acknowledgement = new CompletableFuture<>();
+        int pendingCount;
+        synchronized (this) {
+            PendingUpdate pendingUpdate = pendingUpdates.get(id);
+            if (pendingUpdate == null) {
+                pendingUpdates.put(id, new PendingUpdate(id, employee, expectedVersion, acknowledgement));
+            } else if (expectedVersion != null) {
+                acknowledgement.completeExceptionally(
+                        new PreconditionFailedException(String.format(EMPLOYEE_WAS_MODIFIED, id)));
+                return acknowledgement;
+            } else if (pendingUpdate.expectedVersion != null) {
+                pendingUpdate.followWith(employee, acknowledgement);
+            } else {
+                pendingUpdate.merge(employee, acknowledgement);
+            }
+            pendingCount = pendingUpdates.size();
+        }
+        if (flushExecutor.isShutdown()) {
+            flush();
+        } else if (pendingCount >= flushSize) {
+            try {
+                flushExecutor.execute(this::flush);
+            } catch (RejectedExecutionException exception) {
+                flush();
+            }
+        }
+        return acknowledgement;
+    }
+
+    public void flush() {
+        List<PendingUpdate> batch;
+        synchronized (this) {
+            if (pendingUpdates.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pendingUpdates.size());
+            for (PendingUpdate pendingUpdate : pendingUpdates.values()) {
+                batch.add(pendingUpdate);
+                if (pendingUpdate.followUp != null) {
+                    batch.add(pendingUpdate.followUp);
+                }
+            }
+            pendingUpdates = new LinkedHashMap<>();
+        }
+        flush(batch);
+    }
+
+    private void flush(List<PendingUpdate> batch) {
+        Map<Integer, Employee> updatedEmployees;
+        try {
+            updatedEmployees = transactionTemplate.execute(status -> write(batch));
+        } catch (RuntimeException exception) {
+            if (batch.size() > 1) {
+                LOGGER.warn("Failed to flush {} coalesced employee updates, retrying them one by one", batch.size(),
+                        exception);
+                batch.forEach(pendingUpdate -> flush(Collections.singletonList(pendingUpdate)));
+            } else {
+                LOGGER.warn("Failed to flush coalesced update of employee {}", batch.get(0).id, exception);
+                batch.get(0).fail(exception);
+            }
+            return;
+        }
+        batch.stream().filter(pendingUpdate -> pendingUpdate.updated).forEach(pendingUpdate -> {
+            employeeCache.evict(pendingUpdate.id);
+            searchIndex.index(pendingUpdate.id, updatedEmployees.get(pendingUpdate.id).getName());
+        });
+        companyCache.evictAll();
+        entityCacheEvictor.evictEmployees(batch.stream().filter(pendingUpdate -> pendingUpdate.updated)
+                .map(pendingUpdate -> pendingUpdate.id).collect(Collectors.toList()));
+        batch.forEach(pendingUpdate -> pendingUpdate.acknowledge(updatedEmployees.get(pendingUpdate.id)));
+    }
+
+    private Map<Integer, Employee> write(List<PendingUpdate> batch) {
+        List<Employee> employees = batch.stream().map(PendingUpdate::toEmployee).collect(Collectors.toList());
+        int[] updateCounts = employeeBatchRepository.updateAll(employees);
+        for (int index = 0; index < batch.size(); index++) {
+            batch.get(index).updated = updateCounts[index] > 0;
+        }
+        changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.UPDATE, batch.stream()
+                .filter(pendingUpdate -> pendingUpdate.updated).map(pendingUpdate -> pendingUpdate.id)
+                .collect(Collectors.toList()));
+        List<Integer> ids = batch.stream().map(pendingUpdate -> pendingUpdate.id).distinct()
+                .collect(Collectors.toList());
+        return employeeBatchRepository.findAllByIds(ids).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+    }
+
+    @Override
+    public void destroy() {
+        if (enabled) {
+            flushExecutor.shutdown();
+            try {
+                flushExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            flush();
+        }
+    }
+
+    private static final class PendingUpdate {
+        private final Integer id;
+        private final Integer expectedVersion;
+        private final List<CompletableFuture<Employee>> acknowledgements = new ArrayList<>();
+        private Employee employee;
+        private PendingUpdate followUp;
+        private boolean updated;
+
+        private PendingUpdate(Integer id, Employee employee, Integer expectedVersion,
+                              CompletableFuture<Employee> acknowledgement) {
+            this.id = id;
+            this.employee = employee;
+            this.expectedVersion = expectedVersion;
+            this.acknowledgements.add(acknowledgement);
+        }
+
+        private void merge(Employee employee, CompletableFuture<Employee> acknowledgement) {
+            this.employee = employee;
+            this.acknowledgements.add(acknowledgement);
+        }
+
+        private void followWith(Employee employee, CompletableFuture<Employee> acknowledgement) {
+            if (followUp == null) {
+                followUp = new PendingUpdate(id, employee, null, acknowledgement);
+            } else {
+                followUp.merge(employee, acknowledgement);
+            }
+        }
+
+        private Employee toEmployee() {
+            Employee update = new Employee(employee.getName(), employee.getAge(), employee.getGender(),
+                    employee.getSalary());
+            update.setId(id);
+            update.setVersion(expectedVersion);
+            return update;
+        }
+
+        private void acknowledge(Employee currentEmployee) {
+            if (currentEmployee == null) {
+                fail(new NotFoundException(String.format(EMPLOYEE_NOT_FOUND, id)));
+            } else if (!updated) {
+                fail(new PreconditionFailedException(String.format(EMPLOYEE_WAS_MODIFIED, id)));
+            } else {
+                acknowledgements.forEach(acknowledgement -> acknowledgement.complete(currentEmployee));
+            }
+        }
+
+        private void fail(RuntimeException exception) {
+            acknowledgements.forEach(acknowledgement -> acknowledgement.completeExceptionally(exception));
+        }
+    }
+}
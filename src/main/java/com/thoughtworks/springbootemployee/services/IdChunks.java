@@ -0,0 +1,37 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+final class IdChunks {
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_IDS = 10000;
+
+    private IdChunks() {
+    }
+
+    static List<Integer> distinct(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("IDs must not be empty!");
+        }
+        if (ids.contains(null)) {
+            throw new BadRequestException("IDs must not contain null!");
+        }
+        List<Integer> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.size() > MAX_IDS) {
+            throw new BadRequestException(String.format("At most %s IDs can be requested at once!", MAX_IDS));
+        }
+        return distinctIds;
+    }
+
+    static List<List<Integer>> chunk(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += CHUNK_SIZE) {
+            chunks.add(ids.subList(start, Math.min(start + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+}
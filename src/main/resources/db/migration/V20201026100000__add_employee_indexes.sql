@@ -0,0 +1,2 @@
+UPDATE employee SET gender = LOWER(TRIM(gender)) WHERE gender IS NOT NULL;
+CREATE INDEX idx_employee_gender ON employee (gender);
@@ -0,0 +1,4 @@
+CREATE INDEX idx_employee_company_salary ON employee (company_id, salary);
+CREATE INDEX idx_employee_age_salary ON employee (age, salary);
+CREATE INDEX idx_employee_salary ON employee (salary);
+CREATE INDEX idx_employee_name ON employee (name);
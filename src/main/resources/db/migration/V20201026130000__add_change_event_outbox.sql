@@ -0,0 +1,8 @@
+CREATE TABLE change_event
+(
+    seq             bigint          NOT NULL PRIMARY KEY auto_increment,
+    entity_type     VARCHAR(20)     NOT NULL,
+    entity_id       bigint          NOT NULL,
+    operation       VARCHAR(10)     NOT NULL,
+    changed_at      TIMESTAMP       NOT NULL
+);
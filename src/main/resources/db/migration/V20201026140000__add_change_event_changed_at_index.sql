@@ -0,0 +1 @@
+CREATE INDEX idx_change_event_changed_at ON change_event (changed_at);
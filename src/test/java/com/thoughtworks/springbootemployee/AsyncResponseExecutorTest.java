@@ -0,0 +1,109 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.advice.ErrorResponse;
+import com.thoughtworks.springbootemployee.advice.GlobalControllerAdvice;
+import com.thoughtworks.springbootemployee.controller.AsyncResponseExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class AsyncResponseExecutorTest {
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ThreadPoolTaskExecutor singleThreadExecutor() {
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        return executor;
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void should_return_completed_future_when_respond_given_async_disabled() {
+        //given
+        AsyncResponseExecutor asyncResponseExecutor = new AsyncResponseExecutor(false, singleThreadExecutor(),
+                mock(PlatformTransactionManager.class));
+
+        //when
+        CompletableFuture<String> response = asyncResponseExecutor.respond(() -> "employees");
+
+        //then
+        assertTrue(response.isDone());
+        assertEquals("employees", response.join());
+    }
+
+    @Test
+    void should_return_completable_future_when_respond_given_async_enabled() throws Exception {
+        //given
+        AsyncResponseExecutor asyncResponseExecutor = new AsyncResponseExecutor(true, singleThreadExecutor(),
+                mock(PlatformTransactionManager.class));
+
+        //when
+        CompletableFuture<String> response = asyncResponseExecutor.respond(() -> "employees");
+
+        //then
+        assertEquals("employees", response.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void should_reject_and_map_to_service_unavailable_when_respond_given_saturated_executor() throws Exception {
+        //given
+        AsyncResponseExecutor asyncResponseExecutor = new AsyncResponseExecutor(true, singleThreadExecutor(),
+                mock(PlatformTransactionManager.class));
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await(10, TimeUnit.SECONDS);
+
+        //when
+        RejectedExecutionException exception = assertThrows(RejectedExecutionException.class,
+                () -> asyncResponseExecutor.respond(() -> "employees"));
+        ResponseEntity<ErrorResponse> response = new GlobalControllerAdvice(Duration.ofSeconds(5))
+                .handleRejectedExecutionException(exception);
+
+        //then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void should_round_retry_after_up_to_whole_seconds_when_rejected_given_sub_second_retry_after() {
+        //when
+        ResponseEntity<ErrorResponse> halfSecondResponse = new GlobalControllerAdvice(Duration.ofMillis(500))
+                .handleRejectedExecutionException(new RejectedExecutionException());
+        ResponseEntity<ErrorResponse> longerResponse = new GlobalControllerAdvice(Duration.ofMillis(1500))
+                .handleRejectedExecutionException(new RejectedExecutionException());
+
+        //then
+        assertEquals("1", halfSecondResponse.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("2", longerResponse.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -0,0 +1,83 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.changes.ChangeRingBuffer;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeEvent;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import com.thoughtworks.springbootemployee.repository.ChangeEventBatchRepository;
+import com.thoughtworks.springbootemployee.repository.IChangeEventRepository;
+import com.thoughtworks.springbootemployee.services.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChangeFeedServiceTest {
+    private static final long MAX_SEQ = 5;
+
+    private ChangeFeedService changeFeedService() {
+        IChangeEventRepository changeEventRepository = mock(IChangeEventRepository.class);
+        when(changeEventRepository.findMaxSeq()).thenReturn(Optional.of(MAX_SEQ));
+        when(changeEventRepository.findBySeqGreaterThanOrderBySeqAsc(anyLong(), any())).thenAnswer(invocation -> {
+            long seq = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            return LongStream.rangeClosed(seq + 1, MAX_SEQ).limit(pageable.getPageSize())
+                    .mapToObj(this::changeEvent).collect(Collectors.toList());
+        });
+        ChangeFeedService changeFeedService = new ChangeFeedService(changeEventRepository,
+                mock(ChangeEventBatchRepository.class), new ChangeRingBuffer(10), 2, 1);
+        changeFeedService.startBuffering();
+        return changeFeedService;
+    }
+
+    private ChangeEvent changeEvent(long seq) {
+        ChangeEvent changeEvent = new ChangeEvent(ChangeEntityType.EMPLOYEE, (int) seq, ChangeOperation.UPDATE,
+                Instant.now());
+        changeEvent.setSeq(seq);
+        return changeEvent;
+    }
+
+    @Test
+    void should_deliver_to_other_subscribers_in_batches_when_subscribe_given_stalled_subscriber_and_1_stream_thread()
+            throws Exception {
+        //given
+        ChangeFeedService changeFeedService = changeFeedService();
+        CountDownLatch release = new CountDownLatch(1);
+        changeFeedService.subscribe(0, events -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        List<List<Long>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(3);
+
+        //when
+        changeFeedService.subscribe(0, events -> {
+            batches.add(events.stream().map(ChangeEvent::getSeq).collect(Collectors.toList()));
+            delivered.countDown();
+        });
+
+        //then
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(asList(asList(1L, 2L), asList(3L, 4L), asList(5L)), batches);
+        release.countDown();
+        changeFeedService.destroy();
+    }
+}
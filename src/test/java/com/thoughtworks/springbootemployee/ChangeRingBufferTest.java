@@ -0,0 +1,75 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.changes.ChangeRingBuffer;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeEvent;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeRingBufferTest {
+
+    private ChangeEvent changeEvent(long seq) {
+        ChangeEvent changeEvent = new ChangeEvent(ChangeEntityType.EMPLOYEE, (int) seq, ChangeOperation.UPDATE,
+                Instant.EPOCH);
+        changeEvent.setSeq(seq);
+        return changeEvent;
+    }
+
+    private List<Long> seqs(List<ChangeEvent> changeEvents) {
+        return changeEvents.stream().map(ChangeEvent::getSeq).collect(Collectors.toList());
+    }
+
+    @Test
+    void should_return_events_after_seq_in_seq_order_when_after_given_events_appended_out_of_order() {
+        //given
+        ChangeRingBuffer ringBuffer = new ChangeRingBuffer(10);
+        ringBuffer.coverAfter(0);
+        ringBuffer.append(asList(changeEvent(1), changeEvent(2), changeEvent(4)));
+        ringBuffer.append(asList(changeEvent(3), changeEvent(5)));
+
+        //when
+        Optional<List<ChangeEvent>> changeEvents = ringBuffer.after(1, 3);
+
+        //then
+        assertEquals(asList(2L, 3L, 4L), seqs(changeEvents.get()));
+    }
+
+    @Test
+    void should_not_cover_evicted_events_when_after_given_buffer_over_capacity() {
+        //given
+        ChangeRingBuffer ringBuffer = new ChangeRingBuffer(3);
+        ringBuffer.coverAfter(0);
+
+        //when
+        ringBuffer.append(asList(changeEvent(1), changeEvent(2), changeEvent(3), changeEvent(4), changeEvent(5)));
+
+        //then
+        assertEquals(3, ringBuffer.size());
+        assertFalse(ringBuffer.after(1, 10).isPresent());
+        assertEquals(asList(3L, 4L, 5L), seqs(ringBuffer.after(2, 10).get()));
+        assertTrue(ringBuffer.after(5, 10).get().isEmpty());
+    }
+
+    @Test
+    void should_not_cover_any_events_when_after_given_buffering_not_started() {
+        //given
+        ChangeRingBuffer ringBuffer = new ChangeRingBuffer(10);
+
+        //when
+        ringBuffer.append(asList(changeEvent(1), changeEvent(2)));
+
+        //then
+        assertEquals(0, ringBuffer.size());
+        assertFalse(ringBuffer.after(0, 10).isPresent());
+    }
+}
@@ -1,29 +1,80 @@
 package com.thoughtworks.springbootemployee;
 
+import com.thoughtworks.springbootemployee.cache.LookupCache;
+import com.thoughtworks.springbootemployee.dto.BulkDeleteResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.exception.BadRequestException;
+import com.thoughtworks.springbootemployee.exception.NotFoundException;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
 import com.thoughtworks.springbootemployee.model.Company;
 import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.CompanyEmployee;
+import com.thoughtworks.springbootemployee.repository.CompanySummary;
 import com.thoughtworks.springbootemployee.repository.ICompanyRepository;
 import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import com.thoughtworks.springbootemployee.search.EmployeeSearchIndex;
+import com.thoughtworks.springbootemployee.services.ChangeFeedService;
 import com.thoughtworks.springbootemployee.services.CompanyService;
+import com.thoughtworks.springbootemployee.services.CompanyUpdateResult;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.Page;
+import org.mockito.InOrder;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class CompanyServiceTest {
+    private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+
+    private LookupCache<Integer, Company> companyCache() {
+        return new LookupCache<>("companies", 10, Duration.ofMinutes(1));
+    }
+
+    private EmployeeSearchIndex searchIndex() {
+        return new EmployeeSearchIndex(Duration.ofMillis(50).toNanos());
+    }
+
+    private LookupCache<Integer, Employee> employeeCache() {
+        return new LookupCache<>("employees", 10, Duration.ofMinutes(1));
+    }
+
+    private CompanySummary companySummary(Integer companyId, String companyName, long employeeCount) {
+        CompanySummary companySummary = mock(CompanySummary.class);
+        when(companySummary.getCompanyId()).thenReturn(companyId);
+        when(companySummary.getCompanyName()).thenReturn(companyName);
+        when(companySummary.getEmployeeCount()).thenReturn(employeeCount);
+        return companySummary;
+    }
+
+    private CompanyEmployee companyEmployee(Integer companyId, Integer id, String name) {
+        CompanyEmployee companyEmployee = mock(CompanyEmployee.class);
+        when(companyEmployee.getCompanyId()).thenReturn(companyId);
+        when(companyEmployee.getId()).thenReturn(id);
+        when(companyEmployee.getName()).thenReturn(name);
+        return companyEmployee;
+    }
 
     @Test
     void should_return_2_companies_when_get_companies_given_2_companies() {
@@ -31,26 +82,38 @@ class CompanyServiceTest {
         ICompanyRepository companyRepository = mock(ICompanyRepository.class);
         IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
 
-        List<Employee> employeeList = Arrays.asList(
-                new Employee("nelly", 18, "female", 10),
-                new Employee("nelly", 18, "male", 10),
-                new Employee("nelly", 18, "male", 10));
+        List<CompanySummary> companySummaries = asList(companySummary(1, "OOCL", 3), companySummary(2, "SM", 3));
+        when(companyRepository.findAllSummaries()).thenReturn(companySummaries);
 
-        List<Employee> employeeList2 = Arrays.asList(
-                new Employee("nelly", 18, "female", 10),
-                new Employee("nelly", 18, "male", 10),
-                new Employee("nelly", 18, "male", 10));
-
-        when(companyRepository.findAll()).thenReturn(asList(new Company("OOCL", employeeList),
-                new Company("SM", employeeList2)));
-
-        CompanyService companyService = new CompanyService(companyRepository, employeeRepository);
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
 
         //when
         Integer companyCount = companyService.getAll().size();
 
         //then
         assertEquals(2, companyCount);
+        verify(companyRepository, times(0)).findAll();
+    }
+
+    @Test
+    void should_group_employee_responses_by_company_with_one_query_when_getEmployeeResponsesByCompanyIds_given_2_company_ids() {
+        //given
+        ICompanyRepository companyRepository = mock(ICompanyRepository.class);
+        IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
+        List<CompanyEmployee> companyEmployees = asList(
+                companyEmployee(1, 10, "nelly"), companyEmployee(2, 11, "baron"), companyEmployee(1, 12, "momo"));
+        when(employeeRepository.findCompanyEmployeesByCompanyIdIn(asList(1, 2))).thenReturn(companyEmployees);
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
+
+        //when
+        Map<Integer, List<EmployeeResponse>> employees = companyService.getEmployeeResponsesByCompanyIds(asList(1, 2));
+
+        //then
+        assertEquals(2, employees.get(1).size());
+        assertEquals("momo", employees.get(1).get(1).getName());
+        assertEquals(11, employees.get(2).get(0).getId());
+        verify(employeeRepository, times(1)).findCompanyEmployeesByCompanyIdIn(any());
+        verify(employeeRepository, times(0)).findAll();
     }
 
     @Test
@@ -65,7 +128,7 @@ class CompanyServiceTest {
         ICompanyRepository companyRepository = mock(ICompanyRepository.class);
         IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
         when(companyRepository.save(newCompany)).thenReturn(newCompany);
-        CompanyService companyService = new CompanyService(companyRepository, employeeRepository);
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
 
         //when
         Company company = companyService.create(newCompany);
@@ -88,7 +151,7 @@ class CompanyServiceTest {
         ICompanyRepository companyRepository = mock(ICompanyRepository.class);
         IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
         when(companyRepository.save(newCompany)).thenReturn(newCompany);
-        CompanyService companyService = new CompanyService(companyRepository, employeeRepository);
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
 
         //when
         Company company = companyService.create(newCompany);
@@ -110,8 +173,8 @@ class CompanyServiceTest {
         Company company = new Company("OOCL", employeeList);
         ICompanyRepository repository = mock(ICompanyRepository.class);
         IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
-        when(repository.findById(company.getCompanyId())).thenReturn(Optional.of(company));
-        CompanyService companyService = new CompanyService(repository, employeeRepository);
+        when(repository.findWithEmployeesByCompanyId(company.getCompanyId())).thenReturn(Optional.of(company));
+        CompanyService companyService = new CompanyService(repository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
 
         //when
         Company fetchedCompany = companyService.searchById(company.getCompanyId());
@@ -131,8 +194,9 @@ class CompanyServiceTest {
         newCompany.setCompanyId(1);
         ICompanyRepository companyRepository = mock(ICompanyRepository.class);
         IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
-        when(companyRepository.findById(1)).thenReturn(Optional.of(newCompany));
-        CompanyService companyService = new CompanyService(companyRepository, employeeRepository);
+        when(companyRepository.existsById(1)).thenReturn(true);
+        when(employeeRepository.findByCompanyIdOrderByIdAsc(1)).thenReturn(asList(firstEmployee, secondEmployee));
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
         //when
         List<Employee> employees = companyService.getEmployeesByCompanyId(1);
 
@@ -140,6 +204,50 @@ class CompanyServiceTest {
         assertEquals(2, employees.size());
         assertSame(firstEmployee, employees.get(0));
         assertSame(secondEmployee, employees.get(1));
+        verify(companyRepository, times(0)).findById(1);
+    }
+
+    @Test
+    void should_return_second_page_of_employees_when_getEmployeesByCompanyIdAndPage_given_page_2_pageSize_1() {
+        //given
+        Employee employee = new Employee("baron", 18, "male", 10);
+        ICompanyRepository companyRepository = mock(ICompanyRepository.class);
+        IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
+        Pageable pageable = PageRequest.of(1, 1, Sort.by("id"));
+        when(companyRepository.existsById(1)).thenReturn(true);
+        when(employeeRepository.findByCompanyId(1, pageable))
+                .thenReturn(new SliceImpl<>(asList(employee), pageable, true));
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
+
+        //when
+        Slice<Employee> employees = companyService.getEmployeesByCompanyIdAndPage(1, 2, 1);
+
+        //then
+        assertEquals(1, employees.getNumberOfElements());
+        assertSame(employee, employees.getContent().get(0));
+    }
+
+    @Test
+    void should_throw_not_found_when_getEmployeesByCompanyIdAfter_given_missing_company() {
+        //given
+        ICompanyRepository companyRepository = mock(ICompanyRepository.class);
+        IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
+        when(companyRepository.existsById(1)).thenReturn(false);
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
+
+        //when then
+        assertThrows(NotFoundException.class, () -> companyService.getEmployeesByCompanyIdAfter(1, 0, 2));
+        verify(employeeRepository, times(0)).findByCompanyIdAndIdGreaterThan(any(), any(), any());
+    }
+
+    @Test
+    void should_throw_bad_request_when_getEmployeesByCompanyIdAfter_given_limit_0() {
+        //given
+        CompanyService companyService = new CompanyService(mock(ICompanyRepository.class),
+                mock(IEmployeeRepository.class), companyCache(), employeeCache(), searchIndex(), changeFeedService);
+
+        //when then
+        assertThrows(BadRequestException.class, () -> companyService.getEmployeesByCompanyIdAfter(1, 0, 0));
     }
 
     @Test
@@ -150,18 +258,76 @@ class CompanyServiceTest {
         Company expectedCompany = new Company("OOIL", null);
         expectedCompany.setCompanyId(1);
         ICompanyRepository companyRepository = mock(ICompanyRepository.class);
-        when(companyRepository.findById(1)).thenReturn(Optional.of(company));
-        when(companyRepository.save(company)).thenReturn(expectedCompany);
+        when(companyRepository.findWithEmployeesByCompanyId(1)).thenReturn(Optional.of(company));
 
         IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
 
-        CompanyService companyService = new CompanyService(companyRepository, employeeRepository);
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
+
+        //when
+        CompanyUpdateResult result = companyService.update(company.getCompanyId(), expectedCompany);
+
+        //then
+        assertSame(company, result.getCompany());
+        assertEquals("OOIL", result.getCompany().getCompanyName());
+        assertEquals(0, result.getChangedRows());
+    }
+
+    @Test
+    void should_report_inserted_updated_and_deleted_rows_when_update_given_changed_employee_list() {
+        //given
+        Employee unchanged = new Employee("nelly", 18, "female", 10);
+        unchanged.setId(1);
+        Employee changed = new Employee("baron", 18, "male", 10);
+        changed.setId(2);
+        Employee removed = new Employee("momo", 18, "female", 10);
+        removed.setId(3);
+        Company company = new Company("OOCL", new ArrayList<>(asList(unchanged, changed, removed)));
+        company.setCompanyId(1);
+        Employee unchangedRequest = new Employee("nelly", 18, "female", 10);
+        unchangedRequest.setId(1);
+        Employee changedRequest = new Employee("baron", 19, "male", 20);
+        changedRequest.setId(2);
+        Employee inserted = new Employee("cedric", 18, "male", 10);
+        ICompanyRepository companyRepository = mock(ICompanyRepository.class);
+        IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
+        when(companyRepository.findWithEmployeesByCompanyId(1)).thenReturn(Optional.of(company));
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository,
+                companyCache(), employeeCache(), searchIndex(), changeFeedService);
 
         //when
-        Company updatedCompany = companyService.update(company.getCompanyId(), expectedCompany);
+        CompanyUpdateResult result = companyService.update(1,
+                new Company("OOCL", asList(unchangedRequest, changedRequest, inserted)));
 
         //then
-        assertSame(expectedCompany, updatedCompany);
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getDeleted());
+        assertEquals(asList(unchanged, changed, inserted), company.getEmployees());
+        assertEquals(19, changed.getAge());
+        assertEquals(20, changed.getSalary());
+        verify(employeeRepository, times(0)).save(any());
+        verify(changeFeedService).record(ChangeEntityType.EMPLOYEE, ChangeOperation.UPDATE, singletonList(2));
+        verify(changeFeedService).record(ChangeEntityType.EMPLOYEE, ChangeOperation.DELETE, singletonList(3));
+        verify(changeFeedService).record(ChangeEntityType.COMPANY, ChangeOperation.UPDATE, singletonList(1));
+    }
+
+    @Test
+    void should_throw_bad_request_when_update_given_employee_of_another_company() {
+        //given
+        Company company = new Company("OOCL", new ArrayList<>());
+        company.setCompanyId(1);
+        Employee employee = new Employee("nelly", 18, "female", 10);
+        employee.setId(99);
+        ICompanyRepository companyRepository = mock(ICompanyRepository.class);
+        IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
+        when(companyRepository.findWithEmployeesByCompanyId(1)).thenReturn(Optional.of(company));
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository,
+                companyCache(), employeeCache(), searchIndex(), changeFeedService);
+
+        //when then
+        assertThrows(BadRequestException.class,
+                () -> companyService.update(1, new Company("OOCL", asList(employee))));
     }
 
     @Test
@@ -172,7 +338,7 @@ class CompanyServiceTest {
         ICompanyRepository companyRepository = mock(ICompanyRepository.class);
         IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
 
-        CompanyService companyService = new CompanyService(companyRepository, employeeRepository);
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
 
         //when
         companyService.delete(company.getCompanyId());
@@ -184,22 +350,102 @@ class CompanyServiceTest {
     @Test
     void should_return_2_companies_when_getCompaniesByPageAndPageSize_given_2_companies_page_1_and_pageSize_2() {
         //given
-        Company firstCompany = new Company("OOCL", null);
-        Company secondCompany = new Company("OOIL", null);
+        CompanySummary firstCompany = companySummary(1, "OOCL", 0);
+        CompanySummary secondCompany = companySummary(2, "OOIL", 0);
         int page = 1, pageSize = 2;
-        Pageable pageable = PageRequest.of(page - 1, pageSize);
+        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("companyId"));
         ICompanyRepository companyRepository = mock(ICompanyRepository.class);
         IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
-        Page<Company> mockPage = mock(Page.class);
-        when(companyRepository.findAll(pageable)).thenReturn(mockPage);
-        when(companyRepository.findAll(pageable).toList()).thenReturn(asList(firstCompany, secondCompany));
-        CompanyService companyService = new CompanyService(companyRepository, employeeRepository);
+        when(companyRepository.findSummariesBy(pageable))
+                .thenReturn(new SliceImpl<>(asList(firstCompany, secondCompany), pageable, false));
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
 
         //when
-        List<Company> fetchedCompanies = companyService.getCompaniesByPageAndPageSize(page, pageSize);
+        List<CompanySummary> fetchedCompanies = companyService.getCompaniesByPageAndPageSize(page, pageSize);
 
         //then
         assertEquals(2, fetchedCompanies.size());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_return_companies_after_cursor_when_getCompaniesAfter_given_after_id_1_and_limit_2() {
+        //given
+        CompanySummary firstCompany = companySummary(2, "OOCL", 0);
+        CompanySummary secondCompany = companySummary(3, "OOIL", 0);
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("companyId"));
+        ICompanyRepository companyRepository = mock(ICompanyRepository.class);
+        IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
+        when(companyRepository.findSummariesByCompanyIdGreaterThan(1, pageable))
+                .thenReturn(new SliceImpl<>(asList(firstCompany, secondCompany), pageable, false));
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository, companyCache(), employeeCache(), searchIndex(), changeFeedService);
+
+        //when
+        Slice<CompanySummary> fetchedCompanies = companyService.getCompaniesAfter(1, 2);
+
+        //then
+        assertEquals(2, fetchedCompanies.getNumberOfElements());
+        assertSame(firstCompany, fetchedCompanies.getContent().get(0));
+    }
+
+    @Test
+    void should_evict_cached_employees_when_update_given_company_with_updated_employee() {
+        //given
+        Employee employee = new Employee("nelly", 18, "female", 10);
+        employee.setId(1);
+        Company company = new Company("OOCL", new ArrayList<>(asList(employee)));
+        company.setCompanyId(1);
+        Employee updatedEmployee = new Employee("nelly", 19, "female", 10);
+        updatedEmployee.setId(1);
+        ICompanyRepository companyRepository = mock(ICompanyRepository.class);
+        IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
+        when(companyRepository.findWithEmployeesByCompanyId(1)).thenReturn(Optional.of(company));
+        LookupCache<Integer, Employee> employeeCache = employeeCache();
+        employeeCache.get(1, id -> employee);
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository,
+                companyCache(), employeeCache, searchIndex(), changeFeedService);
+
+        //when
+        companyService.update(1, new Company("OOIL", asList(updatedEmployee)));
+
+        //then
+        assertEquals(0, employeeCache.getStatistics().getSize());
+        assertEquals(1, employeeCache.getStatistics().getInvalidations());
+    }
+
+    @Test
+    void should_throw_not_found_when_getSalaryStatistics_given_missing_company() {
+        //given
+        ICompanyRepository companyRepository = mock(ICompanyRepository.class);
+        IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
+        when(companyRepository.existsById(1)).thenReturn(false);
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository,
+                companyCache(), employeeCache(), searchIndex(), changeFeedService);
+
+        //when then
+        assertThrows(NotFoundException.class, () -> companyService.getSalaryStatistics(1));
+        verify(employeeRepository, times(0)).findSalaryStatisticsByCompanyIdGroupByGender(1);
+    }
+
+    @Test
+    void should_delete_employees_then_companies_without_loading_them_when_deleteAll_given_duplicate_company_ids() {
+        //given
+        ICompanyRepository companyRepository = mock(ICompanyRepository.class);
+        IEmployeeRepository employeeRepository = mock(IEmployeeRepository.class);
+        when(companyRepository.deleteByCompanyIdIn(asList(1, 2))).thenReturn(2);
+        CompanyService companyService = new CompanyService(companyRepository, employeeRepository,
+                companyCache(), employeeCache(), searchIndex(), changeFeedService);
+
+        //when
+        BulkDeleteResponse response = companyService.deleteAll(asList(1, 2, 2));
+
+        //then
+        assertEquals(2, response.getRequested());
+        assertEquals(2, response.getDeleted());
+        InOrder inOrder = inOrder(employeeRepository, companyRepository);
+        inOrder.verify(employeeRepository).deleteByCompanyIdIn(asList(1, 2));
+        inOrder.verify(companyRepository).deleteByCompanyIdIn(asList(1, 2));
+        verify(companyRepository, times(0)).findById(any());
+        verify(companyRepository, times(0)).findWithEmployeesByCompanyId(any());
+    }
+}
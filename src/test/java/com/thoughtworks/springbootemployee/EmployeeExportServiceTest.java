@@ -0,0 +1,41 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeeFieldRepository;
+import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import com.thoughtworks.springbootemployee.services.EmployeeExportService;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmployeeExportServiceTest {
+
+    @Test
+    void should_visit_and_detach_each_employee_when_forEachEmployee_given_2_employees() {
+        //given
+        Employee firstEmployee = new Employee("Cedric", 20, "male", 1000);
+        Employee secondEmployee = new Employee("Jaycee", 20, "male", 1000);
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(repository.streamAll()).thenReturn(Stream.of(firstEmployee, secondEmployee));
+        EmployeeExportService exportService = new EmployeeExportService(repository, mock(EmployeeFieldRepository.class), entityManager);
+        List<Employee> visitedEmployees = new ArrayList<>();
+
+        //when
+        exportService.forEachEmployee(visitedEmployees::add);
+
+        //then
+        assertEquals(asList(firstEmployee, secondEmployee), visitedEmployees);
+        verify(entityManager).detach(firstEmployee);
+        verify(entityManager).detach(secondEmployee);
+    }
+}
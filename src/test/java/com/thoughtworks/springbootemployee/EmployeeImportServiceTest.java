@@ -0,0 +1,128 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.cache.EntityCacheEvictor;
+import com.thoughtworks.springbootemployee.dto.BulkImportResponse;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeeBatchRepository;
+import com.thoughtworks.springbootemployee.services.ChangeFeedService;
+import com.thoughtworks.springbootemployee.services.EmployeeImportService;
+import com.thoughtworks.springbootemployee.services.EmployeeSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmployeeImportServiceTest {
+
+    private final TransactionTemplate transactionTemplate =
+            new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+
+    @Test
+    void should_insert_3_chunks_when_importEmployees_given_5_employees_and_chunk_size_2() {
+        //given
+        List<Employee> employees = asList(
+                new Employee("Cedric", 20, "male", 1000),
+                new Employee("Jaycee", 20, "male", 1000),
+                new Employee("Shana", 20, "female", 1000),
+                new Employee("Nelly", 20, "female", 1000),
+                new Employee("Baron", 20, "male", 1000));
+        EmployeeBatchRepository batchRepository = mock(EmployeeBatchRepository.class);
+        when(batchRepository.insertAll(any(), anyInt())).thenAnswer(invocation -> IntStream.range(0, invocation.<List<Employee>>getArgument(0).size())
+                .boxed().collect(Collectors.toList()));
+        EmployeeImportService importService = new EmployeeImportService(batchRepository, transactionTemplate, 2, 2,
+                mock(EmployeeSearchService.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        BulkImportResponse response = importService.importEmployees(employees.iterator());
+
+        //then
+        assertEquals(5, response.getInserted());
+        assertEquals(0, response.getFailed());
+        assertEquals(3, response.getChunks().size());
+        assertEquals(1, response.getChunks().get(2).getSize());
+        verify(batchRepository, times(3)).insertAll(any(), anyInt());
+        verify(changeFeedService, times(3)).record(eq(ChangeEntityType.EMPLOYEE), eq(ChangeOperation.CREATE), any());
+    }
+
+    @Test
+    void should_report_failed_chunk_and_continue_when_importEmployees_given_second_chunk_rejected() {
+        //given
+        Employee rejectedEmployee = new Employee(null, 20, "male", 1000);
+        List<Employee> employees = asList(
+                new Employee("Cedric", 20, "male", 1000),
+                rejectedEmployee,
+                new Employee("Shana", 20, "female", 1000));
+        EmployeeBatchRepository batchRepository = mock(EmployeeBatchRepository.class);
+        when(batchRepository.insertAll(any(), anyInt())).thenReturn(singletonList(1));
+        when(batchRepository.insertAll(argThat(chunk -> chunk.contains(rejectedEmployee)), anyInt()))
+                .thenThrow(new DataIntegrityViolationException("NAME cannot be null"));
+        EmployeeImportService importService = new EmployeeImportService(batchRepository, transactionTemplate, 1, 1,
+                mock(EmployeeSearchService.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        BulkImportResponse response = importService.importEmployees(employees.iterator());
+
+        //then
+        assertEquals(2, response.getInserted());
+        assertEquals(1, response.getFailed());
+        assertNull(response.getChunks().get(0).getError());
+        assertNotNull(response.getChunks().get(1).getError());
+        assertNull(response.getChunks().get(2).getError());
+    }
+
+    @Test
+    void should_stop_and_report_error_when_importEmployees_given_unreadable_input() {
+        //given
+        Iterator<Employee> employees = new Iterator<Employee>() {
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Employee next() {
+                if (read++ == 3) {
+                    throw new IllegalStateException("Unexpected character");
+                }
+                return new Employee("Cedric", 20, "male", 1000);
+            }
+        };
+        EmployeeBatchRepository batchRepository = mock(EmployeeBatchRepository.class);
+        when(batchRepository.insertAll(any(), anyInt())).thenReturn(asList(1, 2));
+        EmployeeImportService importService = new EmployeeImportService(batchRepository, transactionTemplate, 2, 2,
+                mock(EmployeeSearchService.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        BulkImportResponse response = importService.importEmployees(employees);
+
+        //then
+        assertEquals(2, response.getInserted());
+        assertEquals(1, response.getFailed());
+        assertEquals("Unexpected character", response.getChunks().get(1).getError());
+    }
+}
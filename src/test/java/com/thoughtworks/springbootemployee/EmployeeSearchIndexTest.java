@@ -0,0 +1,124 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.search.EmployeeSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeSearchIndexTest {
+
+    private EmployeeSearchIndex searchIndex() {
+        return new EmployeeSearchIndex(Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void should_rank_exact_then_prefix_then_word_prefix_then_substring_when_search_given_matching_names() {
+        //given
+        EmployeeSearchIndex searchIndex = searchIndex();
+        searchIndex.index(1, "Anne Nelly");
+        searchIndex.index(2, "Janelle");
+        searchIndex.index(3, "Nelly");
+        searchIndex.index(4, "Nelly Chan");
+        searchIndex.index(5, "Baron");
+
+        //when
+        List<Integer> ids = searchIndex.search("nel", 10);
+
+        //then
+        assertEquals(asList(3, 4, 1, 2), ids);
+        assertEquals(asList(3, 4), searchIndex.search("NELLY", 2));
+    }
+
+    @Test
+    void should_match_word_prefixes_when_search_given_query_shorter_than_trigram() {
+        //given
+        EmployeeSearchIndex searchIndex = searchIndex();
+        searchIndex.index(1, "Nelly Chan");
+        searchIndex.index(2, "Janelle");
+
+        //when
+        List<Integer> ids = searchIndex.search("ch", 10);
+
+        //then
+        assertEquals(singletonList(1), ids);
+    }
+
+    @Test
+    void should_match_new_name_only_when_index_given_renamed_employee() {
+        //given
+        EmployeeSearchIndex searchIndex = searchIndex();
+        searchIndex.index(1, "Nelly");
+
+        //when
+        searchIndex.index(1, "Baron");
+
+        //then
+        assertEquals(emptyList(), searchIndex.search("nelly", 10));
+        assertEquals(singletonList(1), searchIndex.search("bar", 10));
+        assertEquals(1, searchIndex.size());
+    }
+
+    @Test
+    void should_not_restore_removed_employee_when_indexIfAbsent_given_stale_scan_row() {
+        //given
+        EmployeeSearchIndex searchIndex = searchIndex();
+        searchIndex.beginScan();
+        searchIndex.index(2, "Momo Updated");
+        searchIndex.remove(1);
+        Map<Integer, String> scannedNames = new HashMap<>();
+        scannedNames.put(1, "Nelly");
+        scannedNames.put(2, "Momo");
+        scannedNames.put(3, "Baron");
+
+        //when
+        searchIndex.indexIfAbsent(scannedNames);
+        searchIndex.endScan(true);
+
+        //then
+        assertTrue(searchIndex.isReady());
+        assertEquals(emptyList(), searchIndex.search("nelly", 10));
+        assertEquals(singletonList(2), searchIndex.search("updated", 10));
+        assertEquals(singletonList(3), searchIndex.search("baron", 10));
+    }
+
+    @Test
+    void should_stay_not_ready_when_endScan_given_failed_scan() {
+        //given
+        EmployeeSearchIndex searchIndex = searchIndex();
+        searchIndex.beginScan();
+
+        //when
+        searchIndex.endScan(false);
+
+        //then
+        assertFalse(searchIndex.isReady());
+    }
+
+    @Test
+    void should_return_partial_results_when_search_given_time_budget_exceeded() {
+        //given
+        AtomicLong ticker = new AtomicLong();
+        EmployeeSearchIndex searchIndex = new EmployeeSearchIndex(Duration.ofMillis(1).toNanos(),
+                () -> ticker.addAndGet(Duration.ofMillis(1).toNanos()));
+        for (int id = 1; id <= 1000; id++) {
+            searchIndex.index(id, "Nelly " + id);
+        }
+
+        //when
+        List<Integer> ids = searchIndex.search("nelly", 1000);
+
+        //then
+        assertTrue(ids.size() < 1000);
+    }
+}
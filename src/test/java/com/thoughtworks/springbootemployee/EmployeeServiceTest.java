@@ -1,36 +1,77 @@
 package com.thoughtworks.springbootemployee;
 
+import com.thoughtworks.springbootemployee.cache.EntityCacheEvictor;
+import com.thoughtworks.springbootemployee.cache.LookupCache;
+import com.thoughtworks.springbootemployee.dto.BulkDeleteResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeFilter;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.exception.BadRequestException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import com.thoughtworks.springbootemployee.model.Company;
 import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeeFieldRepository;
 import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import com.thoughtworks.springbootemployee.search.EmployeeSearchIndex;
+import com.thoughtworks.springbootemployee.services.ChangeFeedService;
 import com.thoughtworks.springbootemployee.services.EmployeeService;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Optional.of;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class EmployeeServiceTest {
+    private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+
+    private LookupCache<Integer, Employee> employeeCache() {
+        return new LookupCache<>("employees", 10, Duration.ofMinutes(1));
+    }
+
+    private LookupCache<Integer, Company> companyCache() {
+        return new LookupCache<>("companies", 10, Duration.ofMinutes(1));
+    }
+
+    private EmployeeSearchIndex searchIndex() {
+        return new EmployeeSearchIndex(Duration.ofMillis(50).toNanos());
+    }
 
     @Test
     void should_return_2_when_get_employees_given_2_employees() {
         //given
         IEmployeeRepository repository = mock(IEmployeeRepository.class);
         when(repository.findAll()).thenReturn(asList(new Employee(), new Employee()));
-        EmployeeService employeeService = new EmployeeService(repository);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
 
         //when
         Integer employeeCount = employeeService.getAll().size();
@@ -46,7 +87,7 @@ class EmployeeServiceTest {
         newEmployee.setId(1);
         IEmployeeRepository repository = mock(IEmployeeRepository.class);
         when(repository.save(newEmployee)).thenReturn(newEmployee);
-        EmployeeService employeeService = new EmployeeService(repository);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
 
         //when
         Employee employee = employeeService.create(newEmployee);
@@ -61,7 +102,7 @@ class EmployeeServiceTest {
         Employee employee = new Employee("", 20, "male", 1000);
         IEmployeeRepository repository = mock(IEmployeeRepository.class);
         when(repository.findById(employee.getId())).thenReturn(of(employee));
-        EmployeeService employeeService = new EmployeeService(repository);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
 
         //when
         Employee fetchedEmployee = employeeService.searchById(employee.getId());
@@ -82,7 +123,7 @@ class EmployeeServiceTest {
         Optional<Employee> optionalEmployee = of(expectedEmployee);
         when(repository.findById(employee.getId())).thenReturn(optionalEmployee);
         when(repository.save(optionalEmployee.get())).thenReturn(expectedEmployee);
-        EmployeeService employeeService = new EmployeeService(repository);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
 
         //when
         Employee updatedEmployee = employeeService.update(employee.getId(), employee);
@@ -91,6 +132,22 @@ class EmployeeServiceTest {
         assertSame(expectedEmployee, updatedEmployee);
     }
 
+    @Test
+    void should_throw_precondition_failed_when_update_given_stale_expected_version() {
+        //given
+        Employee employee = new Employee("Cedric", 19, "female", 6600);
+        employee.setId(1);
+        employee.setVersion(2);
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findById(1)).thenReturn(of(employee));
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when then
+        assertThrows(PreconditionFailedException.class,
+                () -> employeeService.update(1, new Employee("Cedric", 20, "female", 6600), 1));
+        verify(repository, times(0)).save(employee);
+    }
+
     @Test
     void should_trigger_repository_delete_once_when_service_delete_called_given_1_employee() {
         //given
@@ -98,7 +155,7 @@ class EmployeeServiceTest {
         employee.setId(1);
         IEmployeeRepository repository = mock(IEmployeeRepository.class);
 
-        EmployeeService employeeService = new EmployeeService(repository);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
         //when
         employeeService.delete(employee.getId());
         //then
@@ -112,7 +169,7 @@ class EmployeeServiceTest {
         Employee secondEmployee = new Employee("Jaycee", 20, "male", 1000);
         IEmployeeRepository repository = mock(IEmployeeRepository.class);
         when(repository.findByGender("male")).thenReturn(asList(firstEmployee, secondEmployee));
-        EmployeeService employeeService = new EmployeeService(repository);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
 
         //when
         List<Employee> employees = employeeService.searchByGender("male");
@@ -132,7 +189,7 @@ class EmployeeServiceTest {
         Page<Employee> mockPage = mock(Page.class);
         when(repository.findAll(pageable)).thenReturn(mockPage);
         when(repository.findAll(pageable).toList()).thenReturn(asList(firstEmployee, secondEmployee));
-        EmployeeService employeeService = new EmployeeService(repository);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
 
         //when
         List<Employee> fetchedEmployees = employeeService.getEmployeeByPageAndPageSize(page, pageSize);
@@ -154,7 +211,7 @@ class EmployeeServiceTest {
         Page<Employee> mockPage = mock(Page.class);
         when(repository.findAll(pageable)).thenReturn(mockPage);
         when(repository.findAll(pageable).toList()).thenReturn(asList(firstEmployee, secondEmployee));
-        EmployeeService employeeService = new EmployeeService(repository);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
 
         //when
         List<Employee> fetchedEmployees = employeeService.getEmployeeByPageAndPageSize(page, pageSize);
@@ -178,7 +235,7 @@ class EmployeeServiceTest {
         when(mockPage.toList()).thenReturn(singletonList(thirdEmployee));
         when(repository.findAll(pageable)).thenReturn(mockPage);
 
-        EmployeeService employeeService = new EmployeeService(repository);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
 
         //when
         List<Employee> fetchedEmployees = employeeService.getEmployeeByPageAndPageSize(page, pageSize);
@@ -197,7 +254,7 @@ class EmployeeServiceTest {
         Page<Employee> mockPage = mock(Page.class);
         when(repository.findAll(pageable)).thenReturn(mockPage);
         when(repository.findAll(pageable).toList()).thenReturn(emptyList());
-        EmployeeService employeeService = new EmployeeService(repository);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
 
         //when
         List<Employee> fetchedEmployees = employeeService.getEmployeeByPageAndPageSize(page, pageSize);
@@ -205,4 +262,351 @@ class EmployeeServiceTest {
         //then
         assertEquals(0, fetchedEmployees.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_return_employees_after_cursor_when_getEmployeesAfter_given_after_id_1_and_limit_2() {
+        //given
+        Employee firstEmployee = new Employee("Cedric", 20, "male", 1000);
+        Employee secondEmployee = new Employee("Jaycee", 20, "male", 1000);
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("id"));
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findByIdGreaterThan(1, pageable))
+                .thenReturn(new SliceImpl<>(asList(firstEmployee, secondEmployee), pageable, true));
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        Slice<Employee> fetchedEmployees = employeeService.getEmployeesAfter(1, 2);
+
+        //then
+        assertEquals(2, fetchedEmployees.getNumberOfElements());
+        assertTrue(fetchedEmployees.hasNext());
+    }
+
+    @Test
+    void should_return_employee_slice_without_count_when_getEmployeeSliceByPageAndPageSize_given_page_1_and_pageSize_2() {
+        //given
+        EmployeeResponse firstEmployee = new EmployeeResponse(1, "Cedric", 20, "male", 1000);
+        Pageable pageable = PageRequest.of(0, 2);
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findResponsesBy(pageable)).thenReturn(new SliceImpl<>(singletonList(firstEmployee), pageable, false));
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        Slice<EmployeeResponse> fetchedEmployees = employeeService.getEmployeeSliceByPageAndPageSize(1, 2);
+
+        //then
+        assertEquals(1, fetchedEmployees.getNumberOfElements());
+        assertFalse(fetchedEmployees.hasNext());
+        verify(repository, times(0)).findAll(pageable);
+    }
+
+    @Test
+    void should_query_repository_once_when_searchById_called_twice_given_employee_with_id_of_1() {
+        //given
+        Employee employee = new Employee("Cedric", 20, "male", 1000);
+        employee.setId(1);
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findById(1)).thenReturn(of(employee));
+        LookupCache<Integer, Employee> employeeCache = employeeCache();
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache, companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        employeeService.searchById(1);
+        Employee cachedEmployee = employeeService.searchById(1);
+
+        //then
+        assertSame(employee, cachedEmployee);
+        verify(repository, times(1)).findById(1);
+        assertEquals(1, employeeCache.getStatistics().getHits());
+        assertEquals(1, employeeCache.getStatistics().getMisses());
+    }
+
+    @Test
+    void should_reload_employee_when_searchById_called_after_update_given_cached_employee() {
+        //given
+        Employee employee = new Employee("Cedric", 20, "male", 1000);
+        employee.setId(1);
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findById(1)).thenReturn(of(employee));
+        when(repository.save(employee)).thenReturn(employee);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+        employeeService.searchById(1);
+
+        //when
+        employeeService.update(1, new Employee("Cedric", 21, "male", 2000));
+        employeeService.searchById(1);
+
+        //then
+        verify(repository, times(3)).findById(1);
+    }
+
+    @Test
+    void should_evict_cached_companies_when_update_and_delete_given_cached_company() {
+        //given
+        Employee employee = new Employee("Cedric", 20, "male", 1000);
+        employee.setId(1);
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findById(1)).thenReturn(of(employee));
+        when(repository.save(employee)).thenReturn(employee);
+        LookupCache<Integer, Company> companyCache = companyCache();
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache, searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        companyCache.get(1, id -> new Company("OOCL", singletonList(employee)));
+        employeeService.update(1, new Employee("Cedric", 21, "male", 2000));
+        int sizeAfterUpdate = companyCache.getStatistics().getSize();
+        companyCache.get(1, id -> new Company("OOCL", singletonList(employee)));
+        employeeService.delete(1);
+
+        //then
+        assertEquals(0, sizeAfterUpdate);
+        assertEquals(0, companyCache.getStatistics().getSize());
+    }
+
+    @Test
+    void should_query_canonical_gender_when_getByGender_given_mixed_case_gender() {
+        //given
+        Employee employee = new Employee("Cedric", 20, "male", 1000);
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findByGender("male")).thenReturn(singletonList(employee));
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        List<Employee> employees = employeeService.searchByGender(" MaLe ");
+
+        //then
+        assertEquals(1, employees.size());
+        verify(repository, times(1)).findByGender("male");
+    }
+
+    @Test
+    void should_throw_bad_request_when_getSalaryStatistics_given_unknown_group() {
+        //given
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when then
+        assertThrows(BadRequestException.class, () -> employeeService.getSalaryStatistics("age"));
+    }
+
+    @Test
+    void should_return_employee_responses_without_loading_entities_when_getAllResponses_given_2_employees() {
+        //given
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findAllResponses()).thenReturn(asList(
+                new EmployeeResponse(1, "Cedric", 20, "male", 1000),
+                new EmployeeResponse(2, "Jaycee", 20, "male", 1000)));
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        List<EmployeeResponse> employees = employeeService.getAllResponses();
+
+        //then
+        assertEquals(2, employees.size());
+        verify(repository, times(0)).findAll();
+    }
+
+    @Test
+    void should_query_canonical_gender_when_searchResponsesByGender_given_mixed_case_gender() {
+        //given
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findResponsesByGender("female"))
+                .thenReturn(singletonList(new EmployeeResponse(1, "Nelly", 20, "female", 1000)));
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        List<EmployeeResponse> employees = employeeService.searchResponsesByGender("Female");
+
+        //then
+        assertEquals(1, employees.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_query_by_specification_sorted_by_salary_desc_when_searchResponses_given_filter_and_sort() {
+        //given
+        EmployeeFilter filter = new EmployeeFilter();
+        filter.setAgeMin(20);
+        filter.setSort("salary,desc");
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        EmployeeFieldRepository fieldRepository = mock(EmployeeFieldRepository.class);
+        Sort expectedSort = Sort.by(Sort.Direction.DESC, "salary").and(Sort.by("id"));
+        when(fieldRepository.findResponses(any(Specification.class), eq(expectedSort)))
+                .thenReturn(singletonList(new EmployeeResponse(1, "Nelly", 20, "female", 1000)));
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), fieldRepository, mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        List<EmployeeResponse> employees = employeeService.searchResponses(filter);
+
+        //then
+        assertEquals(1, employees.size());
+        assertEquals("Nelly", employees.get(0).getName());
+        verify(repository, times(0)).findAll();
+        verify(repository, times(0)).findAll(any(Specification.class), any(Sort.class));
+    }
+
+    @Test
+    void should_throw_bad_request_when_searchResponses_given_unknown_sort_field() {
+        //given
+        EmployeeFilter filter = new EmployeeFilter();
+        filter.setSort("password,asc");
+        EmployeeService employeeService = new EmployeeService(mock(IEmployeeRepository.class), employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when then
+        assertThrows(BadRequestException.class, () -> employeeService.searchResponses(filter));
+    }
+
+    @Test
+    void should_return_page_content_when_getEmployeeResponsesByPageAndPageSize_given_page_2_and_pageSize_2() {
+        //given
+        EmployeeResponse thirdEmployee = new EmployeeResponse(3, "Shana", 20, "male", 1000);
+        Pageable pageable = PageRequest.of(1, 2);
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findResponsesBy(pageable)).thenReturn(new SliceImpl<>(singletonList(thirdEmployee), pageable, false));
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        List<EmployeeResponse> employees = employeeService.getEmployeeResponsesByPageAndPageSize(2, 2);
+
+        //then
+        assertEquals(1, employees.size());
+        assertSame(thirdEmployee, employees.get(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_query_limited_responses_without_count_when_getEmployeeResponsesByPageAndPageSize_given_filter() {
+        //given
+        EmployeeFilter filter = new EmployeeFilter();
+        filter.setGender("female");
+        filter.setSort("salary");
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        EmployeeFieldRepository fieldRepository = mock(EmployeeFieldRepository.class);
+        Sort expectedSort = Sort.by("salary").and(Sort.by("id"));
+        when(fieldRepository.findResponses(any(Specification.class), eq(expectedSort), eq(2L), eq(2)))
+                .thenReturn(singletonList(new EmployeeResponse(3, "Shana", 20, "female", 1000)));
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), fieldRepository, mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        List<EmployeeResponse> employees = employeeService.getEmployeeResponsesByPageAndPageSize(2, 2, filter);
+
+        //then
+        assertEquals(1, employees.size());
+        assertEquals("Shana", employees.get(0).getName());
+        verify(repository, times(0)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void should_query_in_chunks_of_500_and_keep_request_order_when_searchResponsesByIds_given_501_ids() {
+        //given
+        List<Integer> ids = IntStream.rangeClosed(1, 501).boxed().collect(Collectors.toList());
+        Collections.reverse(ids);
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findResponsesByIdIn(ids.subList(0, 500)))
+                .thenReturn(singletonList(new EmployeeResponse(2, "Nelly", 20, "female", 1000)));
+        when(repository.findResponsesByIdIn(ids.subList(500, 501)))
+                .thenReturn(singletonList(new EmployeeResponse(1, "Baron", 20, "male", 1000)));
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache(), companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        List<EmployeeResponse> employees = employeeService.searchResponsesByIds(ids);
+
+        //then
+        assertEquals(2, employees.size());
+        assertEquals("Nelly", employees.get(0).getName());
+        assertEquals("Baron", employees.get(1).getName());
+        verify(repository, times(2)).findResponsesByIdIn(any());
+    }
+
+    @Test
+    void should_delete_with_one_statement_and_evict_cache_when_deleteAll_given_duplicate_ids() {
+        //given
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findIdsByIdIn(asList(1, 2))).thenReturn(asList(1, 2));
+        when(repository.deleteByIdIn(asList(1, 2))).thenReturn(2);
+        LookupCache<Integer, Employee> employeeCache = employeeCache();
+        employeeCache.get(1, id -> new Employee());
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache, companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when
+        BulkDeleteResponse response = employeeService.deleteAll(asList(1, 2, 1));
+
+        //then
+        assertEquals(2, response.getRequested());
+        assertEquals(2, response.getDeleted());
+        assertEquals(0, employeeCache.getStatistics().getSize());
+        verify(repository, times(0)).findById(any());
+        verify(changeFeedService).record(ChangeEntityType.EMPLOYEE, ChangeOperation.DELETE, asList(1, 2));
+    }
+
+    @Test
+    void should_evict_cache_only_after_commit_when_deleteAll_given_active_transaction() {
+        //given
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.deleteByIdIn(singletonList(1))).thenReturn(1);
+        LookupCache<Integer, Employee> employeeCache = employeeCache();
+        employeeCache.get(1, id -> new Employee());
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache, companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+        TransactionSynchronizationManager.initSynchronization();
+        int sizeBeforeCommit;
+        try {
+            //when
+            employeeService.deleteAll(singletonList(1));
+            sizeBeforeCommit = employeeCache.getStatistics().getSize();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        //then
+        assertEquals(1, sizeBeforeCommit);
+        assertEquals(0, employeeCache.getStatistics().getSize());
+    }
+
+    @Test
+    void should_evict_cache_only_after_commit_when_update_and_delete_given_active_transaction() {
+        //given
+        Employee employee = new Employee("Cedric", 20, "male", 1000);
+        employee.setId(1);
+        IEmployeeRepository repository = mock(IEmployeeRepository.class);
+        when(repository.findById(1)).thenReturn(of(employee));
+        when(repository.save(employee)).thenReturn(employee);
+        LookupCache<Integer, Employee> employeeCache = employeeCache();
+        LookupCache<Integer, Company> companyCache = companyCache();
+        EntityCacheEvictor entityCacheEvictor = mock(EntityCacheEvictor.class);
+        EmployeeService employeeService = new EmployeeService(repository, employeeCache, companyCache, searchIndex(), mock(EmployeeFieldRepository.class), entityCacheEvictor, changeFeedService);
+        employeeCache.get(1, id -> employee);
+        companyCache.get(1, id -> new Company("OOCL", singletonList(employee)));
+        TransactionSynchronizationManager.initSynchronization();
+        int employeeCacheSizeBeforeCommit;
+        int companyCacheSizeBeforeCommit;
+        try {
+            //when
+            employeeService.update(1, new Employee("Cedric", 21, "male", 2000));
+            employeeService.delete(1);
+            employeeCacheSizeBeforeCommit = employeeCache.getStatistics().getSize();
+            companyCacheSizeBeforeCommit = companyCache.getStatistics().getSize();
+            verify(entityCacheEvictor, times(0)).evictCompanyEmployees();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        //then
+        assertEquals(1, employeeCacheSizeBeforeCommit);
+        assertEquals(1, companyCacheSizeBeforeCommit);
+        assertEquals(0, employeeCache.getStatistics().getSize());
+        assertEquals(0, companyCache.getStatistics().getSize());
+        verify(entityCacheEvictor).evictCompanyEmployees();
+    }
+
+    @Test
+    void should_throw_bad_request_when_deleteAll_given_empty_ids() {
+        //given
+        EmployeeService employeeService = new EmployeeService(mock(IEmployeeRepository.class), employeeCache(),
+                companyCache(), searchIndex(), mock(EmployeeFieldRepository.class), mock(EntityCacheEvictor.class), changeFeedService);
+
+        //when then
+        assertThrows(BadRequestException.class, () -> employeeService.deleteAll(emptyList()));
+    }
+}
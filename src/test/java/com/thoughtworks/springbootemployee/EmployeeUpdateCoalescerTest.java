@@ -0,0 +1,236 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.cache.EntityCacheEvictor;
+import com.thoughtworks.springbootemployee.cache.LookupCache;
+import com.thoughtworks.springbootemployee.exception.NotFoundException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeeBatchRepository;
+import com.thoughtworks.springbootemployee.search.EmployeeSearchIndex;
+import com.thoughtworks.springbootemployee.services.ChangeFeedService;
+import com.thoughtworks.springbootemployee.services.EmployeeUpdateCoalescer;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmployeeUpdateCoalescerTest {
+
+    private final TransactionTemplate transactionTemplate =
+            new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    private final LookupCache<Integer, Employee> employeeCache =
+            new LookupCache<>("employees", 10, Duration.ofMinutes(1));
+
+    private final EntityCacheEvictor entityCacheEvictor = mock(EntityCacheEvictor.class);
+
+    private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+
+    private EmployeeUpdateCoalescer coalescer(EmployeeBatchRepository batchRepository, int flushSize) {
+        return new EmployeeUpdateCoalescer(batchRepository, transactionTemplate, employeeCache,
+                new LookupCache<Integer, Company>("companies", 10, Duration.ofMinutes(1)),
+                new EmployeeSearchIndex(Duration.ofMillis(50).toNanos()), entityCacheEvictor, changeFeedService, true,
+                flushSize, Duration.ofHours(1));
+    }
+
+    private Employee storedEmployee(Integer id, String name, Integer age, Integer version) {
+        Employee employee = new Employee(name, age, "female", 1000);
+        employee.setId(id);
+        employee.setVersion(version);
+        return employee;
+    }
+
+    @Test
+    void should_write_one_merged_row_and_acknowledge_both_requests_when_flush_given_2_updates_of_same_employee() throws Exception {
+        //given
+        EmployeeBatchRepository batchRepository = mock(EmployeeBatchRepository.class);
+        Employee storedEmployee = storedEmployee(1, "Nelly", 20, 1);
+        when(batchRepository.updateAll(any())).thenReturn(new int[]{1});
+        when(batchRepository.findAllByIds(singletonList(1))).thenReturn(singletonList(storedEmployee));
+        EmployeeUpdateCoalescer coalescer = coalescer(batchRepository, 100);
+        employeeCache.get(1, id -> storedEmployee(1, "Nelly", 18, 0));
+
+        //when
+        CompletableFuture<Employee> first = coalescer.submit(1, new Employee("Nelly", 19, "female", 1000), null);
+        CompletableFuture<Employee> second = coalescer.submit(1, new Employee("Nelly", 20, "female", 1000), null);
+        assertFalse(first.isDone());
+        coalescer.flush();
+
+        //then
+        verify(batchRepository, times(1)).updateAll(argThat((List<Employee> employees) -> employees.size() == 1
+                && employees.get(0).getAge() == 20 && employees.get(0).getVersion() == null));
+        assertSame(storedEmployee, first.get());
+        assertSame(storedEmployee, second.get());
+        assertEquals(0, employeeCache.getStatistics().getSize());
+        verify(entityCacheEvictor).evictEmployees(singletonList(1));
+        verify(changeFeedService).record(ChangeEntityType.EMPLOYEE, ChangeOperation.UPDATE, singletonList(1));
+        coalescer.destroy();
+    }
+
+    @Test
+    void should_reject_conditional_update_when_submit_given_pending_update_of_same_employee() {
+        //given
+        EmployeeUpdateCoalescer coalescer = coalescer(mock(EmployeeBatchRepository.class), 100);
+        coalescer.submit(1, new Employee("Nelly", 19, "female", 1000), null);
+
+        //when
+        CompletableFuture<Employee> conditional = coalescer.submit(1, new Employee("Nelly", 20, "female", 1000), 0);
+
+        //then
+        ExecutionException exception = assertThrows(ExecutionException.class, conditional::get);
+        assertTrue(exception.getCause() instanceof PreconditionFailedException);
+        coalescer.destroy();
+    }
+
+    @Test
+    void should_apply_plain_update_after_conditional_one_when_flush_given_stale_if_match_then_plain_update()
+            throws Exception {
+        //given
+        EmployeeBatchRepository batchRepository = mock(EmployeeBatchRepository.class);
+        Employee storedEmployee = storedEmployee(1, "Nelly", 21, 4);
+        when(batchRepository.updateAll(any())).thenReturn(new int[]{0, 1});
+        when(batchRepository.findAllByIds(singletonList(1))).thenReturn(singletonList(storedEmployee));
+        EmployeeUpdateCoalescer coalescer = coalescer(batchRepository, 100);
+
+        //when
+        CompletableFuture<Employee> conditional = coalescer.submit(1, new Employee("Nelly", 20, "female", 1000), 2);
+        CompletableFuture<Employee> plain = coalescer.submit(1, new Employee("Nelly", 21, "female", 1000), null);
+        coalescer.flush();
+
+        //then
+        verify(batchRepository).updateAll(argThat((List<Employee> employees) -> employees.size() == 2
+                && employees.get(0).getAge() == 20 && employees.get(0).getVersion() == 2
+                && employees.get(1).getAge() == 21 && employees.get(1).getVersion() == null));
+        assertTrue(assertThrows(ExecutionException.class, conditional::get).getCause()
+                instanceof PreconditionFailedException);
+        assertSame(storedEmployee, plain.get());
+        verify(changeFeedService).record(ChangeEntityType.EMPLOYEE, ChangeOperation.UPDATE, singletonList(1));
+        coalescer.destroy();
+    }
+
+    @Test
+    void should_fail_with_not_found_and_precondition_failed_when_flush_given_missing_and_stale_employees() {
+        //given
+        EmployeeBatchRepository batchRepository = mock(EmployeeBatchRepository.class);
+        when(batchRepository.updateAll(any())).thenReturn(new int[]{0, 0});
+        when(batchRepository.findAllByIds(asList(1, 2))).thenReturn(singletonList(storedEmployee(2, "Baron", 20, 3)));
+        EmployeeUpdateCoalescer coalescer = coalescer(batchRepository, 100);
+
+        //when
+        CompletableFuture<Employee> missing = coalescer.submit(1, new Employee("Nelly", 19, "female", 1000), null);
+        CompletableFuture<Employee> stale = coalescer.submit(2, new Employee("Baron", 21, "male", 1000), 2);
+        coalescer.flush();
+
+        //then
+        assertTrue(assertThrows(ExecutionException.class, missing::get).getCause() instanceof NotFoundException);
+        assertTrue(assertThrows(ExecutionException.class, stale::get).getCause() instanceof PreconditionFailedException);
+        coalescer.destroy();
+    }
+
+    @Test
+    void should_flush_without_waiting_for_interval_when_submit_given_flush_size_reached() throws Exception {
+        //given
+        EmployeeBatchRepository batchRepository = mock(EmployeeBatchRepository.class);
+        when(batchRepository.updateAll(any())).thenReturn(new int[]{1, 1});
+        when(batchRepository.findAllByIds(asList(1, 2))).thenReturn(asList(
+                storedEmployee(1, "Nelly", 19, 1), storedEmployee(2, "Baron", 21, 1)));
+        EmployeeUpdateCoalescer coalescer = coalescer(batchRepository, 2);
+
+        //when
+        coalescer.submit(1, new Employee("Nelly", 19, "female", 1000), null);
+        CompletableFuture<Employee> second = coalescer.submit(2, new Employee("Baron", 21, "male", 1000), null);
+
+        //then
+        assertEquals(21, second.get().getAge());
+        assertTrue(second.isDone());
+        coalescer.destroy();
+    }
+
+    @Test
+    void should_fail_only_invalid_update_when_flush_given_batch_rejected_by_one_row() throws Exception {
+        //given
+        EmployeeBatchRepository batchRepository = mock(EmployeeBatchRepository.class);
+        DataIntegrityViolationException valueTooLong = new DataIntegrityViolationException("Value too long for column NAME");
+        doThrow(valueTooLong).when(batchRepository).updateAll(argThat((List<Employee> employees) ->
+                employees.size() > 1 || employees.get(0).getId() == 2));
+        doReturn(new int[]{1}).when(batchRepository).updateAll(argThat((List<Employee> employees) ->
+                employees.size() == 1 && employees.get(0).getId() != 2));
+        when(batchRepository.findAllByIds(singletonList(1))).thenReturn(singletonList(storedEmployee(1, "Nelly", 19, 1)));
+        when(batchRepository.findAllByIds(singletonList(3))).thenReturn(singletonList(storedEmployee(3, "Momo", 21, 1)));
+        EmployeeUpdateCoalescer coalescer = coalescer(batchRepository, 100);
+
+        //when
+        CompletableFuture<Employee> first = coalescer.submit(1, new Employee("Nelly", 19, "female", 1000), null);
+        CompletableFuture<Employee> invalid = coalescer.submit(2, new Employee("Baron Maximilian von Richthofen",
+                20, "male", 1000), null);
+        CompletableFuture<Employee> third = coalescer.submit(3, new Employee("Momo", 21, "female", 1000), null);
+        coalescer.flush();
+
+        //then
+        assertEquals(19, first.get().getAge());
+        assertEquals(21, third.get().getAge());
+        assertSame(valueTooLong, assertThrows(ExecutionException.class, invalid::get).getCause());
+        verify(changeFeedService).record(ChangeEntityType.EMPLOYEE, ChangeOperation.UPDATE, singletonList(1));
+        verify(changeFeedService).record(ChangeEntityType.EMPLOYEE, ChangeOperation.UPDATE, singletonList(3));
+        coalescer.destroy();
+    }
+
+    @Test
+    void should_drain_pending_updates_when_destroy_given_unflushed_update() throws Exception {
+        //given
+        EmployeeBatchRepository batchRepository = mock(EmployeeBatchRepository.class);
+        when(batchRepository.updateAll(any())).thenReturn(new int[]{1});
+        when(batchRepository.findAllByIds(singletonList(1))).thenReturn(singletonList(storedEmployee(1, "Nelly", 19, 1)));
+        EmployeeUpdateCoalescer coalescer = coalescer(batchRepository, 100);
+        CompletableFuture<Employee> pending = coalescer.submit(1, new Employee("Nelly", 19, "female", 1000), null);
+
+        //when
+        coalescer.destroy();
+
+        //then
+        assertTrue(pending.isDone());
+        assertEquals(19, pending.get().getAge());
+    }
+
+    @Test
+    void should_write_inline_when_submit_given_coalescer_shut_down() throws Exception {
+        //given
+        EmployeeBatchRepository batchRepository = mock(EmployeeBatchRepository.class);
+        when(batchRepository.updateAll(any())).thenReturn(new int[]{1});
+        when(batchRepository.findAllByIds(singletonList(1))).thenReturn(singletonList(storedEmployee(1, "Nelly", 19, 1)));
+        EmployeeUpdateCoalescer coalescer = coalescer(batchRepository, 1);
+        coalescer.destroy();
+
+        //when
+        CompletableFuture<Employee> acknowledgement = coalescer.submit(1, new Employee("Nelly", 19, "female", 1000),
+                null);
+
+        //then
+        assertTrue(acknowledgement.isDone());
+        assertEquals(19, acknowledgement.get().getAge());
+    }
+}
@@ -0,0 +1,60 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.cache.LookupCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LookupCacheTest {
+
+    @Test
+    void should_evict_least_recently_used_entry_when_get_given_cache_at_maximum_size() {
+        //given
+        LookupCache<Integer, String> cache = new LookupCache<>("test", 2, Duration.ofMinutes(1));
+        cache.get(1, id -> "first");
+        cache.get(2, id -> "second");
+        cache.get(1, id -> "reloaded");
+
+        //when
+        cache.get(3, id -> "third");
+
+        //then
+        assertEquals("first", cache.get(1, id -> "reloaded"));
+        assertEquals("reloaded", cache.get(2, id -> "reloaded"));
+        assertEquals(2, cache.getStatistics().getEvictions());
+    }
+
+    @Test
+    void should_reload_entry_when_get_given_time_to_live_elapsed() {
+        //given
+        AtomicLong ticker = new AtomicLong();
+        LookupCache<Integer, String> cache = new LookupCache<>("test", 10, Duration.ofSeconds(1), ticker::get);
+        cache.get(1, id -> "first");
+
+        //when
+        ticker.addAndGet(Duration.ofSeconds(2).toNanos());
+        String value = cache.get(1, id -> "reloaded");
+
+        //then
+        assertEquals("reloaded", value);
+        assertEquals(1, cache.getStatistics().getEvictions());
+        assertEquals(2, cache.getStatistics().getMisses());
+    }
+
+    @Test
+    void should_not_cache_missing_value_when_get_given_loader_returns_null() {
+        //given
+        LookupCache<Integer, String> cache = new LookupCache<>("test", 10, Duration.ofMinutes(1));
+
+        //when
+        String value = cache.get(1, id -> null);
+
+        //then
+        assertNull(value);
+        assertEquals(0, cache.getStatistics().getSize());
+    }
+}
@@ -0,0 +1,96 @@
+package com.thoughtworks.springbootemployee.integration;
+
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.ICompanyRepository;
+import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "async.enabled=true")
+@AutoConfigureMockMvc
+class AsyncIntegrationTest {
+    @Autowired
+    private ICompanyRepository companyRepository;
+
+    @Autowired
+    private IEmployeeRepository employeeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        companyRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void should_return_companies_with_lazy_employees_asynchronously_when_get_companies_by_page_given_async_mode() throws Exception {
+        //given
+        companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/companies").param("page", "1").param("pageSize", "10")
+                .param("include", "employees"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.companyName == '00CL')].employees.length()").value(2));
+    }
+
+    @Test
+    void should_return_not_found_asynchronously_when_get_company_stats_given_missing_company() throws Exception {
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/companies/0/stats"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value("NOT_FOUND"));
+    }
+
+    @Test
+    void should_record_queries_of_executor_thread_when_get_employees_given_async_mode() throws Exception {
+        //given
+        DistributionSummary before = meterRegistry.find("http.server.requests.queries")
+                .tags("method", "GET", "uri", "/employees").summary();
+        double totalBefore = before == null ? 0 : before.totalAmount();
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/employees"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk());
+
+        //then
+        DistributionSummary after = meterRegistry.get("http.server.requests.queries")
+                .tags("method", "GET", "uri", "/employees").summary();
+        assertEquals(totalBefore + 1, after.totalAmount());
+    }
+}
@@ -0,0 +1,261 @@
+package com.thoughtworks.springbootemployee.integration;
+
+import com.google.gson.Gson;
+import com.jayway.jsonpath.JsonPath;
+import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeEvent;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.IChangeEventRepository;
+import com.thoughtworks.springbootemployee.repository.ICompanyRepository;
+import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import com.thoughtworks.springbootemployee.services.ChangeEventPruner;
+import com.thoughtworks.springbootemployee.services.ChangeFeedService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ChangeFeedIntegrationTest {
+    @Autowired
+    private IEmployeeRepository employeeRepository;
+
+    @Autowired
+    private ICompanyRepository companyRepository;
+
+    @Autowired
+    private IChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChangeEventPruner changeEventPruner;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final Gson gson = new Gson();
+
+    @AfterEach
+    void tearDown() {
+        companyRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void should_record_create_update_and_delete_in_outbox_when_employee_mutated() throws Exception {
+        //given
+        long since = changeEventRepository.findMaxSeq().orElse(0L);
+        String createdEmployee = mockMvc.perform(post("/employees")
+                .content(gson.toJson(new EmployeeRequest("nelly", 18, "female", 10)))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer id = JsonPath.read(createdEmployee, "$.id");
+
+        //when
+        mockMvc.perform(put("/employees/" + id)
+                .content(gson.toJson(new EmployeeRequest("nelly", 19, "female", 10)))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/employees/" + id)).andExpect(status().isOk());
+
+        //then
+        List<ChangeEvent> changeEvents = changeEventRepository.findBySeqGreaterThanOrderBySeqAsc(since,
+                PageRequest.of(0, 10));
+        assertEquals(asList(ChangeOperation.CREATE, ChangeOperation.UPDATE, ChangeOperation.DELETE),
+                changeEvents.stream().map(ChangeEvent::getOperation).collect(Collectors.toList()));
+        assertTrue(changeEvents.stream().allMatch(changeEvent -> id.equals(changeEvent.getEntityId())));
+    }
+
+    @Test
+    void should_stream_recorded_changes_after_since_when_get_changes() throws Exception {
+        //given
+        long since = changeEventRepository.findMaxSeq().orElse(0L);
+        Employee employee = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        mockMvc.perform(delete("/employees").param("ids", employee.getId() + ",-1"))
+                .andExpect(status().isOk());
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/changes").param("since", String.valueOf(since)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        String content = awaitContent(mvcResult, "\"entityType\":\"employee\",\"entityId\":" + employee.getId()
+                + ",\"operation\":\"delete\"");
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, mvcResult.getResponse().getContentType());
+        assertTrue(content.contains("event:delete\ndata:{\"seq\":"));
+        assertFalse(content.contains("event:create"));
+        assertFalse(content.contains("\"entityId\":-1"));
+        mvcResult.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    void should_push_company_and_cascaded_employee_changes_when_get_changes_given_open_stream() throws Exception {
+        //given
+        long since = changeEventRepository.findMaxSeq().orElse(0L);
+        MvcResult mvcResult = mockMvc.perform(get("/changes").param("since", String.valueOf(since)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //when
+        Company company = companyRepository.save(new Company("00CL", Collections.singletonList(
+                new Employee("baron", 18, "male", 10))));
+        String createdCompany = mockMvc.perform(post("/companies")
+                .content("{\"companyName\":\"Yangmin\",\"employees\":[{\"name\":\"nelly\",\"age\":18,"
+                        + "\"gender\":\"female\",\"salary\":10}]}")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer createdCompanyId = JsonPath.read(createdCompany, "$.id");
+        mockMvc.perform(delete("/companies/" + company.getCompanyId())).andExpect(status().isOk());
+
+        //then
+        String content = awaitContent(mvcResult, "\"entityType\":\"company\",\"entityId\":"
+                + company.getCompanyId() + ",\"operation\":\"delete\"");
+        assertTrue(content.contains("\"entityType\":\"company\",\"entityId\":" + createdCompanyId
+                + ",\"operation\":\"create\""));
+        assertTrue(content.contains("\"entityType\":\"employee\",\"entityId\":"
+                + company.getEmployees().get(0).getId() + ",\"operation\":\"delete\""));
+        assertTrue(content.indexOf("event:create") < content.indexOf("event:delete"));
+        mvcResult.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    void should_resume_after_last_event_id_when_get_changes_given_last_event_id_header() throws Exception {
+        //given
+        long since = changeEventRepository.findMaxSeq().orElse(0L);
+        Employee first = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        mockMvc.perform(delete("/employees/" + first.getId())).andExpect(status().isOk());
+        long lastEventId = changeEventRepository.findMaxSeq().get();
+        Employee second = employeeRepository.save(new Employee("baron", 18, "male", 10));
+        mockMvc.perform(delete("/employees/" + second.getId())).andExpect(status().isOk());
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/changes").param("since", String.valueOf(since))
+                .header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        String content = awaitContent(mvcResult, "\"entityId\":" + second.getId() + ",\"operation\":\"delete\"");
+        assertFalse(content.contains("\"entityId\":" + first.getId() + ","));
+        mvcResult.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    void should_hold_back_later_commit_until_earlier_seq_commits_when_get_changes_given_overlapping_transactions()
+            throws Exception {
+        //given
+        long since = changeEventRepository.findMaxSeq().orElse(0L);
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> earlierTransaction = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    changeFeedService.record(ChangeEntityType.EMPLOYEE, ChangeOperation.UPDATE,
+                            Collections.singletonList(1));
+                    recorded.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(recorded.await(5, TimeUnit.SECONDS));
+
+        //when
+        transactionTemplate.executeWithoutResult(status -> changeFeedService.record(ChangeEntityType.EMPLOYEE,
+                ChangeOperation.UPDATE, Collections.singletonList(2)));
+        List<ChangeEvent> changesBeforeEarlierCommit = changeFeedService.getChangesAfter(since, 10);
+        release.countDown();
+        earlierTransaction.get(5, TimeUnit.SECONDS);
+
+        //then
+        assertTrue(changesBeforeEarlierCommit.isEmpty());
+        assertEquals(asList(1, 2), changeFeedService.getChangesAfter(since, 10).stream()
+                .map(ChangeEvent::getEntityId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void should_stream_only_new_changes_when_get_changes_given_no_cursor() throws Exception {
+        //given
+        Employee old = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        mockMvc.perform(delete("/employees/" + old.getId())).andExpect(status().isOk());
+        Employee live = employeeRepository.save(new Employee("baron", 18, "male", 10));
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(delete("/employees/" + live.getId())).andExpect(status().isOk());
+
+        //then
+        String content = awaitContent(mvcResult, "\"entityId\":" + live.getId() + ",\"operation\":\"delete\"");
+        assertFalse(content.contains("\"entityId\":" + old.getId() + ","));
+        mvcResult.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    void should_delete_only_expired_change_events_when_prune_given_retention_of_7_days() {
+        //given
+        ChangeEvent expired = changeEventRepository.save(new ChangeEvent(ChangeEntityType.EMPLOYEE, 1,
+                ChangeOperation.DELETE, Instant.now().minus(Duration.ofDays(8))));
+        ChangeEvent retained = changeEventRepository.save(new ChangeEvent(ChangeEntityType.EMPLOYEE, 2,
+                ChangeOperation.DELETE, Instant.now().minus(Duration.ofDays(6))));
+
+        //when
+        int pruned = changeEventPruner.prune();
+
+        //then
+        assertEquals(1, pruned);
+        assertFalse(changeEventRepository.existsById(expired.getSeq()));
+        assertTrue(changeEventRepository.existsById(retained.getSeq()));
+        changeEventRepository.deleteById(retained.getSeq());
+    }
+
+    private String awaitContent(MvcResult mvcResult, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String content = mvcResult.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = mvcResult.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+}
@@ -1,31 +1,41 @@
 package com.thoughtworks.springbootemployee.integration;
 
 import com.google.gson.Gson;
+import com.jayway.jsonpath.JsonPath;
 import com.thoughtworks.springbootemployee.model.Company;
 import com.thoughtworks.springbootemployee.model.Employee;
 import com.thoughtworks.springbootemployee.repository.ICompanyRepository;
 import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import com.thoughtworks.springbootemployee.search.EmployeeSearchIndex;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureMockMvc
 class CompanyIntegrationTest {
     @Autowired
@@ -37,6 +47,12 @@ class CompanyIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EmployeeSearchIndex searchIndex;
+
     @AfterEach
     void tearDown() {
         companyRepository.deleteAll();
@@ -56,7 +72,64 @@ class CompanyIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").isNumber())
                 .andExpect(jsonPath("$[0].companyName").value("00CL"))
-                .andExpect(jsonPath("$[0].employees").isEmpty());
+                .andExpect(jsonPath("$[0].employeeCount").value(0))
+                .andExpect(jsonPath("$[0].employees").doesNotExist());
+    }
+
+    @Test
+    void should_load_companies_with_employee_counts_with_one_statement_when_called_get_all() throws Exception {
+        //given
+        companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        companyRepository.save(new Company("Yangmin", Arrays.asList(
+                new Employee("cedric", 18, "male", 10))));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        mockMvc.perform(get("/companies"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].companyName").value("00CL"))
+                .andExpect(jsonPath("$[0].employeeCount").value(2))
+                .andExpect(jsonPath("$[1].employeeCount").value(1))
+                .andExpect(jsonPath("$[0].employees").doesNotExist());
+
+        //then
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void should_embed_employee_responses_with_one_employee_statement_when_called_get_all_given_include_employees() throws Exception {
+        //given
+        companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        companyRepository.save(new Company("00CLL", Arrays.asList(
+                new Employee("momo", 18, "female", 10), new Employee("janelle", 18, "female", 10))));
+        companyRepository.save(new Company("Yangmin", Arrays.asList(
+                new Employee("cedric", 18, "male", 10))));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        mockMvc.perform(get("/companies").param("include", "employees"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.companyName == 'Yangmin')].employees[0].name").value("cedric"))
+                .andExpect(jsonPath("$[?(@.companyName == '00CLL')].employees.length()").value(2))
+                .andExpect(jsonPath("$[0].employees[0].version").doesNotExist());
+
+        //then
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void should_return_bad_request_when_called_get_all_given_unknown_include() throws Exception {
+        //when then
+        mockMvc.perform(get("/companies").param("include", "employees,salaries"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -71,7 +144,7 @@ class CompanyIntegrationTest {
                 .content(employeeAsJson))
                 .andExpect(jsonPath("$.id").isNumber())
                 .andExpect(jsonPath("$.companyName").value("00CL"))
-                .andExpect(jsonPath("$.employees").isEmpty());
+                .andExpect(jsonPath("$.employeeCount").value(0));
     }
     @Test
     void should_return_2_company_when_findall_using_pagination_given_3_employees_page_1_pageSize_2() throws Exception {
@@ -89,10 +162,10 @@ class CompanyIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").isNumber())
                 .andExpect(jsonPath("$[0].companyName").value("00CL"))
-                .andExpect(jsonPath("$[0].employees").isEmpty())
+                .andExpect(jsonPath("$[0].employeeCount").value(0))
                 .andExpect(jsonPath("$[1].id").isNumber())
                 .andExpect(jsonPath("$[1].companyName").value("00CLL"))
-                .andExpect(jsonPath("$[1].employees").isEmpty());
+                .andExpect(jsonPath("$[1].employeeCount").value(0));
     }
 
     @Test
@@ -127,9 +200,63 @@ class CompanyIntegrationTest {
                  .andExpect(status().isOk())
                  .andExpect(jsonPath("$.id").value(newCompany.getCompanyId()))
                  .andExpect(jsonPath("$.companyName").value(updatedCompanyRequest.getCompanyName()))
-                 .andExpect(jsonPath("$.employees").isArray());
+                 .andExpect(jsonPath("$.employeeCount").value(0));
          }
 
+    @Test
+    void should_apply_employee_diff_and_report_changed_rows_when_update_given_changed_employee_list() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10),
+                new Employee("baron", 18, "male", 10),
+                new Employee("momo", 18, "female", 10))));
+        Employee unchanged = company.getEmployees().get(0);
+        Employee changed = company.getEmployees().get(1);
+        Employee removed = company.getEmployees().get(2);
+        Employee changedRequest = new Employee("baron", 30, "male", 3000);
+        changedRequest.setId(changed.getId());
+        Company updatedCompanyRequest = new Company("alibaba", Arrays.asList(
+                unchanged, changedRequest, new Employee("cedric", 20, "male", 2000)));
+
+        //when then
+        mockMvc.perform(put("/companies/" + company.getCompanyId())
+                .content(gson.toJson(updatedCompanyRequest, Company.class))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.companyName").value("alibaba"))
+                .andExpect(jsonPath("$.employeeCount").value(3))
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.changedRows").value(3));
+        assertEquals(30, employeeRepository.findById(changed.getId()).get().getAge());
+        assertFalse(employeeRepository.findById(removed.getId()).isPresent());
+        assertEquals(3, employeeRepository.count());
+    }
+
+    @Test
+    void should_leave_search_index_unchanged_when_update_given_employee_of_another_company() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        Company otherCompany = companyRepository.save(new Company("Yangmin", Collections.singletonList(
+                new Employee("momo", 18, "female", 10))));
+        Employee renamedRequest = new Employee("zelda", 18, "female", 10);
+        renamedRequest.setId(company.getEmployees().get(0).getId());
+        Company updatedCompanyRequest = new Company("00CL", Arrays.asList(renamedRequest,
+                otherCompany.getEmployees().get(0)));
+
+        //when
+        mockMvc.perform(put("/companies/" + company.getCompanyId())
+                .content(gson.toJson(updatedCompanyRequest, Company.class))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        //then
+        assertTrue(searchIndex.search("zelda", 10).isEmpty());
+        assertEquals("nelly", employeeRepository.findById(renamedRequest.getId()).get().getName());
+    }
+
     @Test
     void should_return_company_when_search_by_id_given_companyID() throws Exception {
         //given
@@ -140,7 +267,32 @@ class CompanyIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").isNumber())
                 .andExpect(jsonPath("$.companyName").value("00CL"))
-                .andExpect(jsonPath("$.employees").isEmpty());
+                .andExpect(jsonPath("$.employeeCount").value(0));
+    }
+
+    @Test
+    void should_return_company_with_employee_count_without_loading_entities_when_search_by_id_given_companyID() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        String etag = mockMvc.perform(get("/companies/" + company.getCompanyId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employeeCount").value(2))
+                .andExpect(jsonPath("$.employees").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //then
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        mockMvc.perform(get("/companies/" + company.getCompanyId()).param("include", "employees"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag.substring(0, etag.length() - 1) + "+employees\""))
+                .andExpect(jsonPath("$.employees.length()").value(2))
+                .andExpect(jsonPath("$.employees[1].name").value("baron"));
     }
 
     @Test
@@ -163,4 +315,221 @@ class CompanyIntegrationTest {
                 .andExpect(jsonPath("$[0].salary").value(10));
     }
 
+    @Test
+    void should_return_second_page_of_employees_without_loading_collection_when_get_employees_given_page_2_pageSize_2() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10),
+                new Employee("baron", 18, "male", 10),
+                new Employee("momo", 18, "female", 10))));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when then
+        mockMvc.perform(get("/companies/" + company.getCompanyId() + "/employees")
+                .param("page", "2").param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("momo"));
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void should_return_employees_after_cursor_when_get_employees_given_limit_2() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10),
+                new Employee("baron", 18, "male", 10),
+                new Employee("momo", 18, "female", 10))));
+        String firstPage = mockMvc.perform(get("/companies/" + company.getCompanyId() + "/employees")
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("nelly"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        // when then
+        mockMvc.perform(get("/companies/" + company.getCompanyId() + "/employees")
+                .param("after", nextCursor).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("momo"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void should_return_not_found_when_get_employees_given_missing_company() throws Exception {
+        // when then
+        mockMvc.perform(get("/companies/0/employees").param("page", "1").param("pageSize", "2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void should_return_salary_statistics_of_company_when_getSalaryStatistics_given_companyID() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10),
+                new Employee("baron", 18, "male", 20),
+                new Employee("momo", 18, "male", 40))));
+
+        // when then
+        mockMvc.perform(get("/companies/" + company.getCompanyId() + "/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].groupKey").value("male"))
+                .andExpect(jsonPath("$[1].employeeCount").value(2))
+                .andExpect(jsonPath("$[1].totalSalary").value(60))
+                .andExpect(jsonPath("$[1].averageSalary").value(30.0));
+    }
+
+    @Test
+    void should_return_not_modified_without_loading_company_when_search_by_id_given_matching_if_none_match() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        String etag = mockMvc.perform(get("/companies/" + company.getCompanyId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when then
+        mockMvc.perform(get("/companies/" + company.getCompanyId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void should_change_company_etag_when_employee_of_company_is_updated() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10))));
+        Integer employeeId = company.getEmployees().get(0).getId();
+        String etag = mockMvc.perform(get("/companies/" + company.getCompanyId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(put("/employees/" + employeeId)
+                .content(gson.toJson(new Employee("nelly", 19, "female", 10)))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        //when then
+        mockMvc.perform(get("/companies/" + company.getCompanyId()).param("include", "employees")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.employees[0].age").value(19));
+    }
+
+    @Test
+    void should_return_fresh_employees_of_cached_company_when_employee_is_updated_or_deleted() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        Integer updatedId = company.getEmployees().get(0).getId();
+        Integer deletedId = company.getEmployees().get(1).getId();
+        mockMvc.perform(get("/companies/" + company.getCompanyId()).param("include", "employees"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.length()").value(2));
+
+        //when
+        mockMvc.perform(put("/employees/" + updatedId)
+                .content(gson.toJson(new Employee("nelly", 19, "female", 10)))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/employees/" + deletedId)).andExpect(status().isOk());
+
+        //then
+        mockMvc.perform(get("/companies/" + company.getCompanyId()).param("include", "employees"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.length()").value(1))
+                .andExpect(jsonPath("$.employees[0].age").value(19));
+    }
+
+    @Test
+    void should_return_precondition_failed_when_update_given_stale_if_match() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Collections.emptyList()));
+        String etag = mockMvc.perform(get("/companies/" + company.getCompanyId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(put("/companies/" + company.getCompanyId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .content(gson.toJson(new Company("alibaba", null), Company.class))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        //when then
+        mockMvc.perform(put("/companies/" + company.getCompanyId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .content(gson.toJson(new Company("tencent", null), Company.class))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals("alibaba", companyRepository.findById(company.getCompanyId()).get().getCompanyName());
+    }
+
+    @Test
+    void should_update_company_when_update_given_if_match_of_employees_representation() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10))));
+        String etag = mockMvc.perform(get("/companies/" + company.getCompanyId()).param("include", "employees"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when then
+        mockMvc.perform(put("/companies/" + company.getCompanyId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .content(gson.toJson(new Company("alibaba", null), Company.class))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        assertEquals("alibaba", companyRepository.findById(company.getCompanyId()).get().getCompanyName());
+    }
+
+    @Test
+    void should_return_companies_with_employees_when_batch_get_given_company_ids() throws Exception {
+        //given
+        Company oocl = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        Company yangmin = companyRepository.save(new Company("Yangmin", Collections.emptyList()));
+
+        // when then
+        mockMvc.perform(post("/companies/batch-get").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + yangmin.getCompanyId() + "," + oocl.getCompanyId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].companyName").value("Yangmin"))
+                .andExpect(jsonPath("$[1].employeeCount").value(2))
+                .andExpect(jsonPath("$[1].employees").doesNotExist());
+        mockMvc.perform(post("/companies/batch-get").param("include", "employees").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + yangmin.getCompanyId() + "," + oocl.getCompanyId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].employees").isEmpty())
+                .andExpect(jsonPath("$[1].employees.length()").value(2));
+    }
+
+    @Test
+    void should_delete_companies_and_their_employees_without_loading_them_when_delete_given_ids() throws Exception {
+        //given
+        Company oocl = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        Company yangmin = companyRepository.save(new Company("Yangmin", Arrays.asList(
+                new Employee("cedric", 18, "male", 10))));
+        Company kept = companyRepository.save(new Company("00CLL", Arrays.asList(
+                new Employee("momo", 18, "female", 10))));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when then
+        mockMvc.perform(delete("/companies").param("ids", oocl.getCompanyId() + "," + yangmin.getCompanyId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(1, companyRepository.count());
+        assertEquals(1, employeeRepository.count());
+        assertTrue(companyRepository.existsById(kept.getCompanyId()));
+    }
 }
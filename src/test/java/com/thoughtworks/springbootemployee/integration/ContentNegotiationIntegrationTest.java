@@ -0,0 +1,189 @@
+package com.thoughtworks.springbootemployee.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.thoughtworks.springbootemployee.controller.MediaTypes;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.ICompanyRepository;
+import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class ContentNegotiationIntegrationTest {
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(MediaTypes.APPLICATION_SMILE_VALUE);
+
+    @Autowired
+    private ICompanyRepository companyRepository;
+
+    @Autowired
+    private IEmployeeRepository employeeRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @LocalServerPort
+    private int port;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    private Company company;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10),
+                new Employee("baron", 28, "male", 20),
+                new Employee("momo", 38, "female", 30))));
+        employee = employeeRepository.save(new Employee("janelle", 48, "female", 40));
+    }
+
+    @AfterEach
+    void tearDown() {
+        companyRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void should_return_same_logical_payload_in_json_cbor_and_smile_when_get_given_every_read_endpoint() throws Exception {
+        //given
+        List<String> paths = Arrays.asList(
+                "/employees",
+                "/employees/" + employee.getId(),
+                "/employees?page=1&pageSize=2",
+                "/employees/slice?page=1&pageSize=2",
+                "/employees?limit=2",
+                "/employees?ageMin=20&sort=salary,desc",
+                "/employees/stats",
+                "/employees/search?q=nel",
+                "/companies",
+                "/companies/" + company.getCompanyId(),
+                "/companies/" + company.getCompanyId() + "/employees",
+                "/companies/" + company.getCompanyId() + "/employees?page=1&pageSize=2",
+                "/companies/" + company.getCompanyId() + "/employees?limit=2",
+                "/companies/" + company.getCompanyId() + "/stats",
+                "/companies?page=1&pageSize=2",
+                "/companies/slice?page=1&pageSize=2",
+                "/companies?limit=2",
+                "/employees/0",
+                "/caches");
+
+        for (String path : paths) {
+            //when
+            JsonNode json = read(get(path).accept(MediaType.APPLICATION_JSON), MediaType.APPLICATION_JSON, jsonMapper);
+            JsonNode cbor = read(get(path).accept(MediaType.APPLICATION_CBOR), MediaType.APPLICATION_CBOR, cborMapper);
+            JsonNode smile = read(get(path).accept(APPLICATION_SMILE), APPLICATION_SMILE, smileMapper);
+
+            //then
+            assertArrayEquals(jsonMapper.writeValueAsBytes(json), jsonMapper.writeValueAsBytes(cbor), path);
+            assertArrayEquals(jsonMapper.writeValueAsBytes(json), jsonMapper.writeValueAsBytes(smile), path);
+        }
+    }
+
+    @Test
+    void should_return_same_logical_payload_in_json_and_cbor_when_batch_get_given_ids() throws Exception {
+        //given
+        String ids = "{\"ids\":[" + employee.getId() + "]}";
+
+        //when
+        JsonNode json = read(post("/employees/batch-get").contentType(MediaType.APPLICATION_JSON).content(ids)
+                .accept(MediaType.APPLICATION_JSON), MediaType.APPLICATION_JSON, jsonMapper);
+        JsonNode cbor = read(post("/employees/batch-get").contentType(MediaType.APPLICATION_JSON).content(ids)
+                .accept(MediaType.APPLICATION_CBOR), MediaType.APPLICATION_CBOR, cborMapper);
+
+        //then
+        assertEquals("janelle", cbor.get(0).get("name").asText());
+        assertArrayEquals(jsonMapper.writeValueAsBytes(json), jsonMapper.writeValueAsBytes(cbor));
+    }
+
+    @Test
+    void should_return_cbor_representation_with_own_etag_when_get_employee_given_if_none_match_of_json() throws Exception {
+        //given
+        String jsonEtag = mockMvc.perform(get("/employees/" + employee.getId()).accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        MockHttpServletResponse response = mockMvc.perform(get("/employees/" + employee.getId())
+                .accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+                .andReturn().getResponse();
+
+        //then
+        assertEquals(200, response.getStatus());
+        assertEquals("\"0\"", jsonEtag);
+        assertEquals("\"0+cbor\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(HttpHeaders.ACCEPT, response.getHeader(HttpHeaders.VARY));
+        assertEquals("janelle", cborMapper.readTree(response.getContentAsByteArray()).get("name").asText());
+    }
+
+    @Test
+    void should_gzip_large_response_and_keep_small_response_plain_when_get_given_accept_encoding_gzip() throws Exception {
+        //given
+        employeeRepository.saveAll(IntStream.range(0, 100)
+                .mapToObj(index -> new Employee("employee-" + index, 20, "male", index))
+                .collect(Collectors.toList()));
+
+        //when
+        HttpURLConnection large = open("/employees", "application/cbor");
+        HttpURLConnection small = open("/employees/" + employee.getId(), "application/json");
+
+        //then
+        assertEquals("gzip", large.getHeaderField(HttpHeaders.CONTENT_ENCODING));
+        try (InputStream body = new GZIPInputStream(large.getInputStream())) {
+            assertTrue(cborMapper.readTree(body).size() >= 104);
+        }
+        assertNull(small.getHeaderField(HttpHeaders.CONTENT_ENCODING));
+        try (InputStream body = small.getInputStream()) {
+            assertEquals("janelle", jsonMapper.readTree(StreamUtils.copyToByteArray(body)).get("name").asText());
+        }
+    }
+
+    private JsonNode read(RequestBuilder request, MediaType expectedType, ObjectMapper mapper) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        assertTrue(expectedType.isCompatibleWith(MediaType.parseMediaType(response.getContentType())),
+                response.getContentType());
+        return mapper.readTree(response.getContentAsByteArray());
+    }
+
+    private HttpURLConnection open(String path, String accept) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setRequestProperty(HttpHeaders.ACCEPT, accept);
+        connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        assertEquals(200, connection.getResponseCode());
+        return connection;
+    }
+}
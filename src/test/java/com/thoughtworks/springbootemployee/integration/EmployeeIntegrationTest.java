@@ -1,35 +1,64 @@
 package com.thoughtworks.springbootemployee.integration;
 
 import com.google.gson.Gson;
+import com.jayway.jsonpath.JsonPath;
+import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
 import com.thoughtworks.springbootemployee.model.Employee;
 import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.repository.ICompanyRepository;
+import com.thoughtworks.springbootemployee.services.EmployeeSearchService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
 import java.util.Optional;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureMockMvc
 class EmployeeIntegrationTest {
     @Autowired
     private IEmployeeRepository employeeRepository;
 
+    @Autowired
+    private ICompanyRepository companyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EmployeeSearchService employeeSearchService;
+
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @AfterEach
     void tearDown() {
+        companyRepository.deleteAll();
         employeeRepository.deleteAll();
     }
 
@@ -42,6 +71,7 @@ class EmployeeIntegrationTest {
         employeeRepository.save(employee);
         // when then
         mockMvc.perform(get("/employees"))
+                .andExpect(request().asyncNotStarted())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").isNumber())
                 .andExpect(jsonPath("$[0].name").value("nelly"))
@@ -183,4 +213,516 @@ class EmployeeIntegrationTest {
                 .andExpect(jsonPath("$[0].gender").value("male"))
                 .andExpect(jsonPath("$[0].salary").value(10));
     }
+
+    @Test
+    void should_return_next_page_by_cursor_when_getEmployeesByCursor_given_3_employees_and_limit_2() throws Exception {
+        //given
+        employeeRepository.deleteAll();
+        employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        employeeRepository.save(new Employee("janelle", 18, "female", 10));
+        employeeRepository.save(new Employee("cedric", 18, "male", 10));
+
+        // when
+        String firstPage = mockMvc.perform(get("/employees?limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("nelly"))
+                .andExpect(jsonPath("$.content[1].name").value("janelle"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        // then
+        mockMvc.perform(get("/employees?limit=2&after=" + nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("cedric"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void should_return_bad_request_when_getEmployeesByCursor_given_invalid_cursor() throws Exception {
+        mockMvc.perform(get("/employees?limit=2&after=not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"));
+    }
+
+    @Test
+    void should_insert_all_employees_when_bulkCreate_given_json_array() throws Exception {
+        //given
+        String employeesAsJson = gson.toJson(new Employee[]{
+                new Employee("nelly", 18, "female", 10),
+                new Employee("janelle", 18, "female", 10),
+                new Employee("cedric", 18, "male", 10)});
+        long employeeCount = employeeRepository.count();
+
+        // when then
+        mockMvc.perform(post("/employees/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(employeesAsJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(3))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.chunks[0].inserted").value(3));
+        assertEquals(employeeCount + 3, employeeRepository.count());
+    }
+
+    @Test
+    void should_insert_all_employees_when_bulkCreate_given_ndjson_stream() throws Exception {
+        //given
+        String employeesAsNdjson = gson.toJson(new Employee("nelly", 18, "female", 10)) + "\n"
+                + gson.toJson(new Employee("cedric", 18, "male", 10)) + "\n";
+
+        // when then
+        mockMvc.perform(post("/employees/bulk")
+                .contentType("application/x-ndjson")
+                .content(employeesAsNdjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.chunks.length()").value(1));
+    }
+
+    @Test
+    void should_write_one_json_line_per_employee_when_export_given_2_employees() throws Exception {
+        //given
+        employeeRepository.deleteAll();
+        employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        employeeRepository.save(new Employee("cedric", 18, "male", 10));
+
+        // when
+        String export = mockMvc.perform(get("/employees/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        String[] lines = export.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("nelly", JsonPath.read(lines[0], "$.name"));
+        assertEquals("cedric", JsonPath.read(lines[1], "$.name"));
+    }
+
+    @Test
+    void should_use_gender_index_when_explain_query_by_gender() {
+        // when
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM employee WHERE gender = 'female'", String.class);
+
+        // then
+        assertTrue(plan.contains("IDX_EMPLOYEE_GENDER"));
+        assertFalse(plan.contains("tableScan"));
+    }
+
+    @Test
+    void should_return_employee_with_canonical_gender_when_search_by_gender_given_mixed_case_gender() throws Exception {
+        //given
+        employeeRepository.deleteAll();
+        employeeRepository.save(new Employee("nelly", 18, "FeMale", 10));
+        employeeRepository.save(new Employee("cedric", 18, "Male", 10));
+
+        // when then
+        mockMvc.perform(get("/employees?gender=FEMALE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("nelly"))
+                .andExpect(jsonPath("$[0].gender").value("female"));
+    }
+
+    @Test
+    void should_return_salary_statistics_grouped_by_gender_when_getSalaryStatistics() throws Exception {
+        //given
+        employeeRepository.deleteAll();
+        employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        employeeRepository.save(new Employee("janelle", 18, "female", 30));
+        employeeRepository.save(new Employee("cedric", 18, "male", 20));
+
+        // when then
+        mockMvc.perform(get("/employees/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].groupKey").value("female"))
+                .andExpect(jsonPath("$[0].employeeCount").value(2))
+                .andExpect(jsonPath("$[0].totalSalary").value(40))
+                .andExpect(jsonPath("$[0].minSalary").value(10))
+                .andExpect(jsonPath("$[0].maxSalary").value(30))
+                .andExpect(jsonPath("$[0].averageSalary").value(20.0))
+                .andExpect(jsonPath("$[0].medianSalary").value(20.0))
+                .andExpect(jsonPath("$[1].groupKey").value("male"))
+                .andExpect(jsonPath("$[1].employeeCount").value(1));
+    }
+
+    @Test
+    void should_return_bad_request_when_getSalaryStatistics_given_unknown_group() throws Exception {
+        mockMvc.perform(get("/employees/stats?groupBy=age"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_return_not_modified_when_search_by_id_given_matching_if_none_match() throws Exception {
+        //given
+        Employee employee = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        String etag = mockMvc.perform(get("/employees/" + employee.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when then
+        mockMvc.perform(get("/employees/" + employee.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void should_return_fields_with_own_etag_when_search_by_id_with_fields_given_if_none_match_of_full_representation() throws Exception {
+        //given
+        Employee employee = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        String etag = mockMvc.perform(get("/employees/" + employee.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when then
+        mockMvc.perform(get("/employees/" + employee.getId()).param("fields", "name,age")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0+name.age\""))
+                .andExpect(jsonPath("$.name").value("nelly"))
+                .andExpect(jsonPath("$.gender").doesNotExist());
+        mockMvc.perform(get("/employees/" + employee.getId()).param("fields", "name,age")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0+name.age\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void should_return_new_etag_when_search_by_id_given_employee_updated_after_etag_was_issued() throws Exception {
+        //given
+        Employee employee = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        EmployeeRequest employeeRequest = new EmployeeRequest("nelly", 19, "female", 10);
+        mockMvc.perform(put("/employees/" + employee.getId())
+                .content(gson.toJson(employeeRequest))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // when then
+        mockMvc.perform(get("/employees/" + employee.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.age").value(19));
+    }
+
+    @Test
+    void should_return_precondition_failed_when_update_given_stale_if_match() throws Exception {
+        //given
+        Employee employee = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        EmployeeRequest employeeRequest = new EmployeeRequest("nelly", 19, "female", 10);
+
+        // when then
+        mockMvc.perform(put("/employees/" + employee.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .content(gson.toJson(employeeRequest))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(put("/employees/" + employee.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .content(gson.toJson(employeeRequest))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value("PRECONDITION_FAILED"));
+        assertEquals(1, employeeRepository.findById(employee.getId()).get().getVersion());
+    }
+
+    @Test
+    void should_load_only_matching_employees_sorted_by_salary_desc_when_get_all_given_filters() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 25, "female", 300),
+                new Employee("nora", 30, "female", 500),
+                new Employee("nick", 40, "male", 900),
+                new Employee("baron", 30, "male", 800))));
+        employeeRepository.save(new Employee("nadia", 30, "female", 700));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when then
+        mockMvc.perform(get("/employees")
+                .param("ageMin", "25").param("ageMax", "35").param("salaryMin", "200")
+                .param("namePrefix", "n").param("companyId", String.valueOf(company.getCompanyId()))
+                .param("sort", "salary,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("nora"))
+                .andExpect(jsonPath("$[1].name").value("nelly"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void should_return_filtered_page_without_count_query_when_getByEmployeeByPage_given_gender_and_salaryMin()
+            throws Exception {
+        //given
+        employeeRepository.save(new Employee("nelly", 18, "female", 100));
+        employeeRepository.save(new Employee("momo", 18, "female", 300));
+        employeeRepository.save(new Employee("janelle", 18, "female", 200));
+        employeeRepository.save(new Employee("baron", 18, "male", 400));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when then
+        mockMvc.perform(get("/employees?page=1&pageSize=1&gender=female&salaryMin=150&sort=salary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("janelle"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void should_treat_wildcards_literally_when_get_all_given_namePrefix_with_percent() throws Exception {
+        //given
+        employeeRepository.save(new Employee("nelly", 18, "female", 10));
+
+        // when then
+        mockMvc.perform(get("/employees").param("namePrefix", "%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void should_return_bad_request_when_get_all_given_unknown_sort_field() throws Exception {
+        // when then
+        mockMvc.perform(get("/employees?sort=version,desc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_use_company_salary_index_when_explain_query_by_company_id_and_salary_range() {
+        // when
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM employee WHERE company_id = 1 AND salary >= 100", String.class);
+
+        // then
+        assertTrue(plan.contains("IDX_EMPLOYEE_COMPANY_SALARY"));
+    }
+
+    @Test
+    void should_use_age_salary_index_when_explain_query_by_age_range() {
+        // when
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM employee WHERE age >= 20 AND age <= 30 AND salary >= 100", String.class);
+
+        // then
+        assertTrue(plan.contains("IDX_EMPLOYEE_AGE_SALARY"));
+    }
+
+    @Test
+    void should_return_ranked_employees_when_search_given_employees_created_updated_and_deleted() throws Exception {
+        //given
+        employeeSearchService.scanAsync().get();
+        String janelle = mockMvc.perform(post("/employees").contentType(MediaType.APPLICATION_JSON)
+                .content(gson.toJson(new EmployeeRequest("Janelle", 18, "female", 10))))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post("/employees").contentType(MediaType.APPLICATION_JSON)
+                .content(gson.toJson(new EmployeeRequest("Nelly", 18, "female", 10))));
+        String momo = mockMvc.perform(post("/employees").contentType(MediaType.APPLICATION_JSON)
+                .content(gson.toJson(new EmployeeRequest("Momo", 18, "female", 10))))
+                .andReturn().getResponse().getContentAsString();
+        String baron = mockMvc.perform(post("/employees").contentType(MediaType.APPLICATION_JSON)
+                .content(gson.toJson(new EmployeeRequest("Baron", 18, "male", 10))))
+                .andReturn().getResponse().getContentAsString();
+        Integer momoId = JsonPath.read(momo, "$.id");
+        Integer baronId = JsonPath.read(baron, "$.id");
+        mockMvc.perform(put("/employees/" + momoId).contentType(MediaType.APPLICATION_JSON)
+                .content(gson.toJson(new EmployeeRequest("Nelson", 18, "female", 10))));
+        mockMvc.perform(delete("/employees/" + baronId));
+
+        // when then
+        mockMvc.perform(get("/employees/search").param("q", "nel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].name").value("Nelly"))
+                .andExpect(jsonPath("$[1].name").value("Nelson"))
+                .andExpect(jsonPath("$[2].id").value((Integer) JsonPath.read(janelle, "$.id")));
+        mockMvc.perform(get("/employees/search").param("q", "bar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void should_return_bad_request_when_search_given_blank_query() throws Exception {
+        // when then
+        mockMvc.perform(get("/employees/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_return_employees_in_requested_order_when_batch_get_given_ids_with_missing_id() throws Exception {
+        //given
+        Employee nelly = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        Employee baron = employeeRepository.save(new Employee("baron", 18, "male", 10));
+
+        // when then
+        mockMvc.perform(post("/employees/batch-get").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + baron.getId() + ",0," + nelly.getId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("baron"))
+                .andExpect(jsonPath("$[1].name").value("nelly"));
+    }
+
+    @Test
+    void should_delete_listed_employees_without_loading_them_when_delete_given_ids() throws Exception {
+        //given
+        Employee nelly = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        Employee baron = employeeRepository.save(new Employee("baron", 18, "male", 10));
+        Employee momo = employeeRepository.save(new Employee("momo", 18, "female", 10));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when then
+        mockMvc.perform(delete("/employees").param("ids", nelly.getId() + "," + baron.getId() + "," + nelly.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(2))
+                .andExpect(jsonPath("$.deleted").value(2));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(1, employeeRepository.count());
+        assertTrue(employeeRepository.existsById(momo.getId()));
+    }
+
+    @Test
+    void should_return_bad_request_when_batch_get_given_empty_ids() throws Exception {
+        // when then
+        mockMvc.perform(post("/employees/batch-get").contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_select_and_write_only_requested_fields_when_get_all_given_fields_and_filters() throws Exception {
+        //given
+        employeeRepository.save(new Employee("nelly", 25, "female", 300));
+        employeeRepository.save(new Employee("nora", 30, "female", 500));
+        employeeRepository.save(new Employee("baron", 30, "male", 800));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when then
+        mockMvc.perform(get("/employees").param("gender", "female").param("sort", "salary,desc")
+                .param("fields", "name,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("nora"))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[0].age").doesNotExist())
+                .andExpect(jsonPath("$[0].gender").doesNotExist())
+                .andExpect(jsonPath("$[0].salary").doesNotExist());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        String query = statistics.getQueries()[0];
+        assertTrue(query.contains(".name"));
+        assertFalse(query.contains(".age"));
+        assertFalse(query.contains(".salary as"));
+    }
+
+    @Test
+    void should_return_requested_fields_when_get_by_page_slice_and_id_given_fields() throws Exception {
+        //given
+        Employee nelly = employeeRepository.save(new Employee("nelly", 18, "female", 100));
+        employeeRepository.save(new Employee("momo", 19, "female", 300));
+        employeeRepository.save(new Employee("baron", 20, "male", 200));
+
+        // when then
+        mockMvc.perform(get("/employees?page=2&pageSize=2&fields=salary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].salary").value(200))
+                .andExpect(jsonPath("$[0].id").doesNotExist());
+        mockMvc.perform(get("/employees/slice?page=1&pageSize=2&fields=name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[1].name").value("momo"))
+                .andExpect(jsonPath("$.content[1].age").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(true));
+        mockMvc.perform(get("/employees/" + nelly.getId()).param("fields", "age,gender"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.age").value(18))
+                .andExpect(jsonPath("$.gender").value("female"))
+                .andExpect(jsonPath("$.name").doesNotExist());
+        mockMvc.perform(get("/employees/0").param("fields", "name"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void should_keep_id_for_next_cursor_when_getEmployeesByCursor_given_fields_without_id() throws Exception {
+        //given
+        employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        employeeRepository.save(new Employee("momo", 18, "female", 10));
+        employeeRepository.save(new Employee("baron", 18, "male", 10));
+
+        // when
+        String firstPage = mockMvc.perform(get("/employees?limit=2&fields=name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].salary").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        mockMvc.perform(get("/employees").param("limit", "2").param("fields", "name")
+                .param("after", (String) JsonPath.read(firstPage, "$.nextCursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("baron"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void should_return_requested_fields_in_requested_order_when_batch_get_and_search_given_fields() throws Exception {
+        //given
+        employeeSearchService.scanAsync().get();
+        Employee nelly = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        Employee baron = employeeRepository.save(new Employee("baron", 18, "male", 20));
+        mockMvc.perform(post("/employees").contentType(MediaType.APPLICATION_JSON)
+                .content(gson.toJson(new EmployeeRequest("Nelson", 18, "male", 30))));
+
+        // when then
+        mockMvc.perform(post("/employees/batch-get").param("fields", "salary").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + baron.getId() + ",0," + nelly.getId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].salary").value(20))
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(jsonPath("$[1].salary").value(10));
+        mockMvc.perform(get("/employees/search").param("q", "nelson").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Nelson"))
+                .andExpect(jsonPath("$[0].gender").doesNotExist());
+    }
+
+    @Test
+    void should_write_only_requested_fields_per_line_when_export_given_fields() throws Exception {
+        //given
+        employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        employeeRepository.save(new Employee("cedric", 18, "male", 10));
+
+        // when
+        String export = mockMvc.perform(get("/employees/export").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        String[] lines = export.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"name\":\"nelly\"}", lines[0]);
+        assertEquals("{\"name\":\"cedric\"}", lines[1]);
+    }
+
+    @Test
+    void should_return_bad_request_when_get_all_given_unknown_field() throws Exception {
+        // when then
+        mockMvc.perform(get("/employees").param("fields", "name,version"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,95 @@
+package com.thoughtworks.springbootemployee.integration;
+
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricsIntegrationTest {
+    @Autowired
+    private IEmployeeRepository employeeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void should_expose_route_and_service_metrics_in_prometheus_format_when_called_prometheus_endpoint() throws Exception {
+        //given
+        mockMvc.perform(get("/employees")).andExpect(status().isOk());
+        mockMvc.perform(get("/employees/0")).andExpect(status().isNotFound());
+
+        //when then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_count{exception=\"None\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/employees\",}")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{exception=\"None\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/employees\",le=\"+Inf\",}")))
+                .andExpect(content().string(containsString("service_method_seconds_bucket{class=\"EmployeeService\",exception=\"none\",method=\"searchResponses\",le=\"+Inf\",}")))
+                .andExpect(content().string(containsString("outcome=\"CLIENT_ERROR\",status=\"404\",uri=\"/employees/{employeeId}\"")))
+                .andExpect(content().string(containsString("service_method_seconds_count{class=\"EmployeeService\",exception=\"none\",method=\"searchResponses\",}")))
+                .andExpect(content().string(containsString("service_method_seconds_count{class=\"EmployeeService\",exception=\"NotFoundException\",method=\"searchById\",}")))
+                .andExpect(content().string(containsString("http_server_requests_queries_count{method=\"GET\",uri=\"/employees\",}")));
+    }
+
+    @Test
+    void should_record_one_query_when_get_employee_by_id_given_uncached_employee() throws Exception {
+        //given
+        Employee employee = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        DistributionSummary before = meterRegistry.find("http.server.requests.queries")
+                .tags("method", "GET", "uri", "/employees/{employeeId}").summary();
+        long countBefore = before == null ? 0 : before.count();
+        double totalBefore = before == null ? 0 : before.totalAmount();
+
+        //when
+        mockMvc.perform(get("/employees/" + employee.getId())).andExpect(status().isOk());
+
+        //then
+        DistributionSummary after = meterRegistry.get("http.server.requests.queries")
+                .tags("method", "GET", "uri", "/employees/{employeeId}").summary();
+        assertEquals(countBefore + 1, after.count());
+        assertEquals(totalBefore + 1, after.totalAmount());
+    }
+
+    @Test
+    void should_record_jdbc_batches_when_bulk_create_given_two_employees() throws Exception {
+        //given
+        DistributionSummary before = meterRegistry.find("http.server.requests.queries")
+                .tags("method", "POST", "uri", "/employees/bulk").summary();
+        double totalBefore = before == null ? 0 : before.totalAmount();
+
+        //when
+        mockMvc.perform(post("/employees/bulk")
+                .content("[{\"name\":\"nelly\",\"age\":18,\"gender\":\"female\",\"salary\":10},"
+                        + "{\"name\":\"baron\",\"age\":18,\"gender\":\"male\",\"salary\":10}]")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        //then
+        DistributionSummary after = meterRegistry.get("http.server.requests.queries")
+                .tags("method", "POST", "uri", "/employees/bulk").summary();
+        assertEquals(totalBefore + 2, after.totalAmount());
+    }
+}
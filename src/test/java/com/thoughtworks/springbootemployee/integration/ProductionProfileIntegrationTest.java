@@ -0,0 +1,86 @@
+package com.thoughtworks.springbootemployee.integration;
+
+import com.thoughtworks.springbootemployee.config.StartupSelfCheck;
+import com.thoughtworks.springbootemployee.model.ChangeEntityType;
+import com.thoughtworks.springbootemployee.model.ChangeEvent;
+import com.thoughtworks.springbootemployee.model.ChangeOperation;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.IChangeEventRepository;
+import com.thoughtworks.springbootemployee.services.ChangeFeedService;
+import com.thoughtworks.springbootemployee.services.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "employee.data-dir=./build/production-profile-test")
+@ActiveProfiles("production")
+class ProductionProfileIntegrationTest {
+    @Autowired
+    private StartupSelfCheck startupSelfCheck;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private IChangeEventRepository changeEventRepository;
+
+    @Test
+    void should_report_tuned_settings_when_collect_settings_given_production_profile() {
+        //when
+        Map<String, Object> settings = startupSelfCheck.collectSettings();
+
+        //then
+        assertEquals(false, settings.get("spring.jpa.show-sql"));
+        assertEquals("100", settings.get("spring.jpa.properties.hibernate.jdbc.batch_size"));
+        assertEquals("true", settings.get("spring.jpa.properties.hibernate.order_inserts"));
+        assertEquals("true", settings.get("spring.jpa.properties.hibernate.order_updates"));
+        assertEquals(10, settings.get("hikari.maximum-pool-size"));
+        assertEquals(false, settings.get("hikari.auto-commit"));
+        assertEquals("131072", settings.get("h2.CACHE_SIZE"));
+        assertEquals("64", settings.get("h2.QUERY_CACHE_SIZE"));
+        assertEquals("true", settings.get("h2.MV_STORE"));
+    }
+
+    @Test
+    void should_commit_change_event_with_employee_when_create_given_production_profile() {
+        //given
+        long since = changeEventRepository.findMaxSeq().orElse(0L);
+
+        //when
+        Employee employee = employeeService.create(new Employee("nelly", 18, "female", 10));
+
+        //then
+        List<ChangeEvent> changeEvents = changeEventRepository.findBySeqGreaterThanOrderBySeqAsc(since,
+                PageRequest.of(0, 10));
+        assertEquals(1, changeEvents.size());
+        assertEquals(employee.getId(), changeEvents.get(0).getEntityId());
+        assertEquals(changeEvents.get(0).getSeq(), changeFeedService.getChangesAfter(since, 10).get(0).getSeq());
+        employeeService.delete(employee.getId());
+    }
+
+    @Test
+    void should_reject_change_event_when_record_given_no_transaction() {
+        //given
+        long since = changeEventRepository.findMaxSeq().orElse(0L);
+
+        //when
+        assertThrows(IllegalTransactionStateException.class, () -> changeFeedService.record(
+                ChangeEntityType.EMPLOYEE, ChangeOperation.UPDATE, Collections.singletonList(1)));
+
+        //then
+        assertEquals(since, changeEventRepository.findMaxSeq().orElse(0L));
+    }
+}
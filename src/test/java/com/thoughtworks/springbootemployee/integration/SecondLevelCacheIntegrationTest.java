@@ -0,0 +1,202 @@
+package com.thoughtworks.springbootemployee.integration;
+
+import com.google.gson.Gson;
+import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.ICompanyRepository;
+import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import com.thoughtworks.springbootemployee.services.CompanyService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class SecondLevelCacheIntegrationTest {
+    @Autowired
+    private IEmployeeRepository employeeRepository;
+
+    @Autowired
+    private ICompanyRepository companyRepository;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final Gson gson = new Gson();
+
+    @AfterEach
+    void tearDown() {
+        companyRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void should_load_company_and_employees_from_second_level_cache_when_read_twice_given_warm_cache() {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        loadCompany(company.getCompanyId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        List<String> employeeNames = loadCompany(company.getCompanyId());
+
+        //then
+        assertEquals(Arrays.asList("00CL", "nelly", "baron"), employeeNames);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(4, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void should_read_updated_company_and_employee_when_update_given_company_in_second_level_cache() {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        loadCompany(company.getCompanyId());
+        Employee updatedEmployee = new Employee("nelly", 19, "female", 10);
+        updatedEmployee.setId(company.getEmployees().get(0).getId());
+        Employee unchangedEmployee = new Employee("baron", 18, "male", 10);
+        unchangedEmployee.setId(company.getEmployees().get(1).getId());
+
+        //when
+        companyService.update(company.getCompanyId(),
+                new Company("Yangmin", Arrays.asList(updatedEmployee, unchangedEmployee)));
+
+        //then
+        assertEquals(Arrays.asList("Yangmin", "nelly", "baron"), loadCompany(company.getCompanyId()));
+        assertEquals(19, employeeRepository.findById(updatedEmployee.getId()).get().getAge());
+    }
+
+    @Test
+    void should_evict_removed_employee_and_collection_when_update_given_employee_dropped_by_orphan_removal() {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        loadCompany(company.getCompanyId());
+        Employee keptEmployee = new Employee("nelly", 18, "female", 10);
+        keptEmployee.setId(company.getEmployees().get(0).getId());
+        Integer removedId = company.getEmployees().get(1).getId();
+        assertTrue(entityManagerFactory.getCache().contains(Employee.class, removedId));
+
+        //when
+        companyService.update(company.getCompanyId(),
+                new Company("00CL", new ArrayList<>(Collections.singletonList(keptEmployee))));
+
+        //then
+        assertEquals(Arrays.asList("00CL", "nelly"), loadCompany(company.getCompanyId()));
+        assertFalse(employeeRepository.findById(removedId).isPresent());
+    }
+
+    @Test
+    void should_evict_cascaded_employees_when_delete_given_company_in_second_level_cache() {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Collections.singletonList(
+                new Employee("nelly", 18, "female", 10))));
+        loadCompany(company.getCompanyId());
+        Integer employeeId = company.getEmployees().get(0).getId();
+
+        //when
+        companyService.delete(company.getCompanyId());
+
+        //then
+        assertFalse(companyRepository.findById(company.getCompanyId()).isPresent());
+        assertFalse(employeeRepository.findById(employeeId).isPresent());
+    }
+
+    @Test
+    void should_evict_company_employees_collection_when_delete_given_employee_of_cached_company() throws Exception {
+        //given
+        Company company = companyRepository.save(new Company("00CL", Arrays.asList(
+                new Employee("nelly", 18, "female", 10), new Employee("baron", 18, "male", 10))));
+        loadCompany(company.getCompanyId());
+
+        //when
+        mockMvc.perform(delete("/employees/" + company.getEmployees().get(1).getId()))
+                .andExpect(status().isOk());
+
+        //then
+        assertEquals(Arrays.asList("00CL", "nelly"), loadCompany(company.getCompanyId()));
+    }
+
+    @Test
+    void should_serve_find_by_gender_from_query_cache_and_invalidate_it_when_bulk_import() throws Exception {
+        //given
+        employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        employeeRepository.findByGender("female");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        List<Employee> cachedEmployees = employeeRepository.findByGender("female");
+        long cachedQueryStatements = statistics.getPrepareStatementCount();
+        mockMvc.perform(post("/employees/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(gson.toJson(Collections.singletonList(new EmployeeRequest("lily", 20, "female", 10)))))
+                .andExpect(status().isOk());
+
+        //then
+        assertEquals(1, cachedEmployees.size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, cachedQueryStatements);
+        assertEquals(Arrays.asList("nelly", "lily"), employeeRepository.findByGender("female").stream()
+                .map(Employee::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void should_evict_employees_and_query_cache_when_delete_by_ids_given_cached_employees() throws Exception {
+        //given
+        Employee employee = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        employeeRepository.findById(employee.getId());
+        employeeRepository.findByGender("female");
+
+        //when
+        mockMvc.perform(delete("/employees").param("ids", String.valueOf(employee.getId())))
+                .andExpect(status().isOk());
+
+        //then
+        assertFalse(entityManagerFactory.getCache().contains(Employee.class, employee.getId()));
+        assertTrue(employeeRepository.findByGender("female").isEmpty());
+    }
+
+    private List<String> loadCompany(Integer id) {
+        return transactionTemplate.execute(status -> {
+            Company company = companyRepository.findById(id).get();
+            List<String> names = new ArrayList<>();
+            names.add(company.getCompanyName());
+            company.getEmployees().forEach(employee -> names.add(employee.getName()));
+            return names;
+        });
+    }
+}
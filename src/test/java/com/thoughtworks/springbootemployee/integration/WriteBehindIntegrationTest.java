@@ -0,0 +1,96 @@
+package com.thoughtworks.springbootemployee.integration;
+
+import com.google.gson.Gson;
+import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.IEmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"employee.write-behind.enabled=true", "employee.write-behind.flush-interval=10ms"})
+@AutoConfigureMockMvc
+class WriteBehindIntegrationTest {
+    @Autowired
+    private IEmployeeRepository employeeRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final Gson gson = new Gson();
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void should_acknowledge_update_after_flush_and_read_it_back_when_update_given_write_behind_mode() throws Exception {
+        //given
+        Employee employee = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        mockMvc.perform(get("/employees/" + employee.getId())).andExpect(status().isOk());
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(put("/employees/" + employee.getId())
+                .content(gson.toJson(new EmployeeRequest("nelly", 19, "female", 20)))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.age").value(19))
+                .andExpect(jsonPath("$.salary").value(20));
+        mockMvc.perform(get("/employees/" + employee.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.age").value(19));
+        assertEquals(1, employeeRepository.findById(employee.getId()).get().getVersion());
+    }
+
+    @Test
+    void should_return_precondition_failed_when_update_given_stale_if_match_in_write_behind_mode() throws Exception {
+        //given
+        Employee employee = employeeRepository.save(new Employee("nelly", 18, "female", 10));
+        employee.setAge(19);
+        employeeRepository.save(employee);
+
+        // when then
+        mockMvc.perform(put("/employees/" + employee.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .content(gson.toJson(new EmployeeRequest("nelly", 20, "female", 10)))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void should_return_not_found_when_update_given_missing_employee_in_write_behind_mode() throws Exception {
+        //when
+        MvcResult mvcResult = mockMvc.perform(put("/employees/0")
+                .content(gson.toJson(new EmployeeRequest("nelly", 20, "female", 10)))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound());
+    }
+}